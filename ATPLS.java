@@ -3,31 +3,31 @@ package gecco24;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
 import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 import org.uma.jmetal.util.comparator.DominanceComparator;
 import org.uma.jmetal.util.errorchecking.JMetalException;
 import org.uma.jmetal.util.pseudorandom.JMetalRandom;
 
+import gecco24.DominanceQuery.Relation;
+
 public class ATPLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S> {
 
 	private static final long serialVersionUID = -4985021281052183946L;
 	private int evaluations = 0;
 	private Problem<S> problem;
-	private Supplier<List<List<Integer>>> indexGenerator;
-	private BiFunction<S, List<Integer>, S> neighbourGenerator;
+	private NeighbourMoves<S> moves;
 	private DominanceComparator<S> dominance;
-	private NonDominatedSolutionListArchive<S> archive;
+	private Archive<S> archive;
 	private List<S> initSolutions = null;
 	private Consumer<ZAlgorithm> monitor = null;
 	
-	private String selectionStrategy = "OHI";
+	private String selectionStrategy = "OHI"; // "OHI" on two objectives, uniform "random" otherwise
 	private String acceptanceStrategy = "><";
 	private String exploreStrategy = "*";
 
@@ -39,25 +39,20 @@ public class ATPLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm
 		this.monitor = monitor;
 	}
 
-	private List<List<Integer>> neighbourIndices;
-
 	private int maxEvaluations = Integer.MAX_VALUE;
 	private boolean prompt = true;
 	private S candidate;
-	private NonDominatedSolutionListArchive<S> explore;
-	private NonDominatedSolutionListArchive<S> externalArchive;
+	private S work = null; // working copy of the candidate the moves are applied to
+	private ExploreSet<S> explore;
+	private OHIQueue<S> ohi = null; // explore set by OHI, for the OHI selection
+	private Archive<S> externalArchive;
 
-	public ATPLS(Problem<S> problem, Supplier<List<List<Integer>>> indexGenerator,
-			BiFunction<S, List<Integer>, S> neighborGenerator, DominanceComparator<S> dominance) {
+	public ATPLS(Problem<S> problem, NeighbourMoves<S> moves, DominanceComparator<S> dominance) {
 		this.problem = problem;
-		this.indexGenerator = indexGenerator;
-		this.neighbourGenerator = neighborGenerator;
+		this.moves = moves;
 		this.dominance = dominance;
 		this.archive = new NonDominatedSolutionListArchive<S>();
 		this.externalArchive = new NonDominatedSolutionListArchive<S>();
-
-		neighbourIndices = new ArrayList<List<Integer>>();
-		indexGenerator.get().forEach(neighbourIndices::add);
 	}
 
 	@Override
@@ -86,69 +81,78 @@ public class ATPLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm
 			initSolutions.forEach(i -> problem.evaluate(i));
 			evaluations = initSolutions.size();
 		}
-		archive.addAll(initSolutions);
-		externalArchive.addAll(initSolutions);
-
-		explore = new NonDominatedSolutionListArchive<S>();
-		explore.addAll(initSolutions);
+		initSolutions.forEach(archive::add);
+		initSolutions.forEach(externalArchive::add);
+
+		explore = new ExploreSet<S>(problem.getNumberOfObjectives());
+		ohi = null;
+		if (selectionStrategy.equals("OHI") && problem.getNumberOfObjectives() == 2) {
+			ohi = new OHIQueue<S>();
+			explore.setListeners(ohi::add, ohi::remove);
+		} else if (!selectionStrategy.equals("OHI") && !selectionStrategy.equals("random"))
+			throw new JMetalException("Any Time PLS: Unknown selection strategy "+selectionStrategy);
+		initSolutions.forEach(explore::add);
 
 		while (explore.size() > 0) {
 			if (prompt)
 				System.out.println("Explore list size: " + explore.size() + ";  \tevaluations: " + evaluations
 						+ ";  \tarchive size: " + archive.size());
 
-			// random selection
-			candidate = (S) sample(explore.getSolutionList());
-
-			List<List<Integer>> neighbourIndices;
-			if (!candidate.attributes().containsKey("neighbourIndices")) {
-				neighbourIndices = new ArrayList<List<Integer>>();
-				this.neighbourIndices.forEach(neighbourIndices::add);
-				candidate.attributes().put("neighbourIndices", neighbourIndices);
-			}
-			neighbourIndices = (List<List<Integer>>) candidate.attributes().get("neighbourIndices");
+			// OHI or random selection
+			candidate = ohi != null ? ohi.best() : (S) sample(explore.getSolutionList());
 
+			// neighbourhood exploration, in place on the working copy
+			work = moves.reset(candidate, work);
 			boolean accept = false;
 			if (acceptanceStrategy.equals("<")) {
-				for (int index = 0; index<neighbourIndices.size(); index++) {
-					S nb = neighbourGenerator.apply(candidate, neighbourIndices.get(index));
+				for (Neighbourhood.Cursor cursor = moves.getNeighbourhood().cursor(); cursor.hasNext();) {
+					int move = cursor.next();
 					if (evaluations<maxEvaluations) {
-						problem.evaluate(nb); evaluations++; externalArchive.add(nb);
-						boolean added = archive.add(nb);
+						evaluations += moves.apply(candidate, work, move);
+						boolean kept = keepExternal();
+						boolean added = DominanceQuery.query(archive, work, r -> true, dominance).accepted();
 						if (added) {
-							explore.add(nb);
+							explore.add(work);
 							accept = true;
-							if (exploreStrategy.contains("1")) break;
 						}
+						release(move, kept || added);
+						if (added && exploreStrategy.contains("1")) break;
 					} else break;
 				}
 			} else if (acceptanceStrategy.equals(">")) {
-				for (int index = 0; index<neighbourIndices.size(); index++) {
-					S nb = neighbourGenerator.apply(candidate, neighbourIndices.get(index));
+				for (Neighbourhood.Cursor cursor = moves.getNeighbourhood().cursor(); cursor.hasNext();) {
+					int move = cursor.next();
 					if (evaluations<maxEvaluations) {
-						problem.evaluate(nb); evaluations++; externalArchive.add(nb);
-						if (archive.getSolutionList().stream().anyMatch(s -> dominance.compare(nb, s)==-1)) {
-							archive.add(nb);
-							explore.add(nb);
+						evaluations += moves.apply(candidate, work, move);
+						boolean kept = keepExternal();
+						// inserted only if it dominates a member
+						boolean added = DominanceQuery.query(archive, work, r -> r == Relation.DOMINATES, dominance) == Relation.DOMINATES;
+						if (added) {
+							explore.add(work);
 							accept = true;
-							if (exploreStrategy.contains("1")) break;
 						}
+						release(move, kept || added);
+						if (added && exploreStrategy.contains("1")) break;
 					} else break;
 				}
 			} else if (acceptanceStrategy.equals("><")) {
 				var nonDominatedSols = new ArrayList<S>();
-				for (int index = 0; index<neighbourIndices.size(); index++) {
-					S nb = neighbourGenerator.apply(candidate, neighbourIndices.get(index));
+				for (Neighbourhood.Cursor cursor = moves.getNeighbourhood().cursor(); cursor.hasNext();) {
+					int move = cursor.next();
 					if (evaluations<maxEvaluations) {
-						problem.evaluate(nb); evaluations++; externalArchive.add(nb);
-						if (archive.getSolutionList().stream().anyMatch(s -> dominance.compare(nb, s)==-1)) {
-							archive.add(nb);
-							explore.add(nb);
+						evaluations += moves.apply(candidate, work, move);
+						boolean kept = keepExternal();
+						Relation relation = DominanceQuery.query(archive, work, r -> r == Relation.DOMINATES, dominance);
+						if (relation == Relation.DOMINATES) {
+							explore.add(work);
 							accept = true;
-							if (exploreStrategy.contains("1")) break;
-						} else if (!archive.getSolutionList().stream().anyMatch(s -> dominance.compare(s, nb)==-1)) {
-							nonDominatedSols.add(nb);
+							kept = true;
+						} else if (relation != Relation.DOMINATED) {
+							nonDominatedSols.add(work);
+							kept = true;
 						}
+						release(move, kept);
+						if (relation == Relation.DOMINATES && exploreStrategy.contains("1")) break;
 					} else break;
 				}
 				if (!accept && nonDominatedSols.size()>0) {
@@ -172,51 +176,35 @@ public class ATPLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm
 			if (!accept) {
 				if (exploreStrategy.equals("1*")) {
 					exploreStrategy = "*";
-					explore.getSolutionList().clear();
-					explore.getSolutionList().addAll(archive.getSolutionList());
+					explore.clear();
+					archive.getSolutionList().forEach(explore::add);
 				}
 			}
 			if (monitor != null) monitor.accept(this);
-			explore.getSolutionList().remove(candidate);
+			explore.remove(candidate);
 			
 			if (evaluations >= maxEvaluations)
 				break;
 		}
 	}
 	
-	private S OHIselection(List<S> sols) {
-		if (sols.size()==0) throw new JMetalException("Anytime PLS: Fail OHI selection, archive size=0");
-		if (sols.size()==1) return sols.get(0);
-		
-		sols.sort( (s1, s2) -> Double.compare(s1.objectives()[0], s2.objectives()[0]));
-		
-		// case of leftmost
-		int OHIbestIndex = 0;
-		double OHIbest = 2*ohvc(sols.get(0), sols.get(1));
-		sols.get(0).attributes().put("OHI", OHIbest);
-		
-		// OHI of middle solutions
-		for (int i=1; i<sols.size()-1; i++) {
-			double OHI = ohvc(sols.get(i-1), sols.get(i)) + ohvc(sols.get(i), sols.get(i+1));
-			sols.get(i).attributes().put("OHI", OHI);
-			if (OHI>OHIbest) {
-				OHIbest = OHI;
-				OHIbestIndex = i;
-			}
-		}
-		
-		double OHI = 2 * ohvc(sols.get(sols.size()-1), sols.get(sols.size()-2));
-		sols.get(sols.size()-1).attributes().put("OHI", OHI);
-		if (OHI>OHIbest) {
-			OHIbest = OHI;
-			OHIbestIndex = sols.size()-1;
-		}
-		
-		return sols.get(OHIbestIndex);
+	/**
+	 * Inserts the working neighbour into the external archive if it accepts it
+	 * @return true if inserted
+	 */
+	private boolean keepExternal() {
+		return DominanceQuery.query(externalArchive, work, r -> true, dominance).accepted();
 	}
-	
-	private double ohvc(S s1, S s2) {
-		return Math.abs(s1.objectives()[0]-s2.objectives()[0])*Math.abs(s1.objectives()[1]-s2.objectives()[1]);
+
+	/**
+	 * Undoes move on the working copy, or leaves it to the archives and lists keeping it and
+	 * starts a new working copy, so both archives share one instance
+	 */
+	private void release(int move, boolean kept) {
+		if (kept)
+			work = moves.reset(candidate, null);
+		else
+			moves.undo(candidate, work, move);
 	}
 
 	private S sample(List<S> l) {
@@ -240,6 +228,18 @@ public class ATPLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm
 		this.initSolutions = initSolutions;
 	}
 
+	public String getSelectionStrategy() {
+		return selectionStrategy;
+	}
+
+	/**
+	 * @param selectionStrategy "OHI" for the explore set member of largest OHI, "random" for a
+	 *                          uniformly random one
+	 */
+	public void setSelectionStrategy(String selectionStrategy) {
+		this.selectionStrategy = selectionStrategy;
+	}
+
 	public int getMaxEvaluations() {
 		return maxEvaluations;
 	}
@@ -265,6 +265,19 @@ public class ATPLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm
 		return archive.getSolutionList();
 	}
 
+	public void setArchive(Archive<S> archive) {
+		this.archive = archive;
+	}
+
+	@Override
+	public GenotypeCache getGenotypeCache() {
+		return moves.getGenotypeCache();
+	}
+
+	public void setExternalArchive(Archive<S> externalArchive) {
+		this.externalArchive = externalArchive;
+	}
+
 	@Override
 	public List<S> getArchive() {
 		return archive.getSolutionList();
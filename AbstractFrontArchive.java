@@ -0,0 +1,208 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
+import org.uma.jmetal.util.comparator.DominanceComparator;
+
+/**
+ * AbstractFrontArchive
+ * Common part of the archives that index their front instead of scanning a list.
+ * Constraint handling follows DominanceComparator: a feasible point dominates every infeasible
+ * one, so infeasible points are only kept, in a scanned list, while no feasible point exists,
+ * and subclasses only see feasible points. getSolutionList() is cached until the next change.
+ * A removal listener is told of every member that leaves the archive.
+ */
+@SuppressWarnings("serial")
+public abstract class AbstractFrontArchive<S extends Solution> implements Archive<S>, DominanceQuery<S> {
+
+	private final List<S> infeasible = new ArrayList<S>();
+	private final DominanceComparator<S> dominance = new DominanceComparator<S>();
+	private final List<S> solutionList = new ArrayList<S>();
+	private boolean changed = false;
+	private Consumer<S> removalListener = null;
+
+	/**
+	 * @return relation of a feasible point to the feasible front, without changing it
+	 */
+	protected abstract Relation relation(S solution);
+
+	/**
+	 * Inserts a feasible point known to be accepted, removing the members it dominates
+	 */
+	protected abstract void insertFeasible(S solution);
+
+	/**
+	 * Removes a feasible member, found by identity
+	 * @return true if it was a member
+	 */
+	protected abstract boolean removeFeasible(S solution);
+
+	/**
+	 * @return number of feasible points
+	 */
+	protected abstract int frontSize();
+
+	/**
+	 * Appends all feasible points to list
+	 */
+	protected abstract void collect(List<S> list);
+
+	/**
+	 * Inserts a feasible point unless it is dominated by or equal to a member,
+	 * removing the members it dominates
+	 * @return true if inserted
+	 */
+	protected boolean addFeasible(S solution) {
+		if (!relation(solution).accepted())
+			return false;
+		insertFeasible(solution);
+		return true;
+	}
+
+	/**
+	 * To be called by subclasses for every feasible member they drop
+	 */
+	protected void removed(S solution) {
+		if (removalListener != null)
+			removalListener.accept(solution);
+	}
+
+	/**
+	 * @param listener called with each member removed from the archive, by a dominating
+	 *                 insertion or by remove()
+	 */
+	public void setRemovalListener(Consumer<S> listener) {
+		this.removalListener = listener;
+	}
+
+	@Override
+	public boolean add(S solution) {
+		if (violation(solution) < 0) {
+			if (frontSize() > 0)
+				return false;
+			return addInfeasible(solution);
+		}
+		clearInfeasible();
+		if (!addFeasible(solution))
+			return false;
+		changed = true;
+		return true;
+	}
+
+	/**
+	 * Removes a member, found by identity
+	 * @return true if it was a member
+	 */
+	public boolean remove(S solution) {
+		if (frontSize() == 0) {
+			for (int i = 0; i < infeasible.size(); i++) {
+				if (infeasible.get(i) == solution) {
+					infeasible.remove(i);
+					removed(solution);
+					return true;
+				}
+			}
+			return false;
+		}
+		if (!removeFeasible(solution))
+			return false;
+		removed(solution);
+		changed = true;
+		return true;
+	}
+
+	// as NonDominatedSolutionListArchive.add()
+	private boolean addInfeasible(S solution) {
+		Iterator<S> members = infeasible.iterator();
+		while (members.hasNext()) {
+			S member = members.next();
+			int flag = dominance.compare(solution, member);
+			if (flag < 0) {
+				members.remove();
+				removed(member);
+			} else if (flag > 0 || Arrays.equals(solution.objectives(), member.objectives()))
+				return false;
+		}
+		infeasible.add(solution);
+		return true;
+	}
+
+	private void clearInfeasible() {
+		if (infeasible.isEmpty())
+			return;
+		List<S> dominated = new ArrayList<S>(infeasible);
+		infeasible.clear();
+		dominated.forEach(this::removed);
+	}
+
+	@Override
+	public Relation query(S solution, Predicate<Relation> insert) {
+		Relation relation;
+		if (violation(solution) < 0) {
+			if (frontSize() > 0)
+				return Relation.DOMINATED;
+			relation = DominanceQuery.scan(infeasible, solution, dominance);
+			if (relation.accepted() && insert.test(relation))
+				addInfeasible(solution);
+			return relation;
+		}
+		if (frontSize() == 0)
+			relation = infeasible.size() > 0 ? Relation.DOMINATES : Relation.NONDOMINATED;
+		else
+			relation = relation(solution);
+		if (relation.accepted() && insert.test(relation)) {
+			clearInfeasible();
+			insertFeasible(solution);
+			changed = true;
+		}
+		return relation;
+	}
+
+	private static double violation(Solution<?> solution) {
+		double violation = 0;
+		for (double c : solution.constraints())
+			if (c < 0)
+				violation += c;
+		return violation;
+	}
+
+	@Override
+	public S get(int index) {
+		return getSolutionList().get(index);
+	}
+
+	/**
+	 * @return the archive members. The list is owned by the archive and refreshed
+	 *         after each change, it must not be modified.
+	 */
+	@Override
+	public List<S> getSolutionList() {
+		if (frontSize() == 0)
+			return infeasible;
+		if (changed) {
+			solutionList.clear();
+			collect(solutionList);
+			changed = false;
+		}
+		return solutionList;
+	}
+
+	@Override
+	public int size() {
+		return frontSize() == 0 ? infeasible.size() : frontSize();
+	}
+
+	@Override
+	public Archive<S> join(Archive<S> archive) {
+		for (S solution : archive.getSolutionList())
+			add(solution);
+		return this;
+	}
+}
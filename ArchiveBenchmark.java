@@ -0,0 +1,71 @@
+package gecco24;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.uma.jmetal.util.archive.Archive;
+import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
+
+/**
+ * ArchiveBenchmark
+ * Insertion throughput of NonDominatedSolutionListArchive and NDTreeArchive for M = 3, 4, 5
+ * and 10k, 100k and 1M points. The points lie in a thin shell around the unit sphere in the
+ * positive orthant, so a large part of them is mutually non-dominated, as in a long local search.
+ * Each measure stops after secondsPerMeasure, the throughput is then over the points inserted
+ * so far and the row is marked partial.
+ *
+ * java gecco24.ArchiveBenchmark [secondsPerMeasure]
+ */
+public class ArchiveBenchmark {
+
+	public static void main(String[] args) {
+		int seconds = args.length > 0 ? Integer.valueOf(args[0]) : 30;
+		System.out.println("M\tpoints\tarchive\tinserted\tarchive size\tinserts/s");
+		for (int M = 3; M <= 5; M++) {
+			for (int n : new int[] { 10000, 100000, 1000000 }) {
+				double[][] points = points(n, M, 1);
+				measure("list", NonDominatedSolutionListArchive::new, points, seconds);
+				measure("ndtree", NDTreeArchive::new, points, seconds);
+			}
+		}
+	}
+
+	private static void measure(String name, Supplier<Archive<IntPermutationSolution>> archiveFactory,
+			double[][] points, int seconds) {
+		Archive<IntPermutationSolution> archive = archiveFactory.get();
+		int M = points[0].length;
+		long t0 = System.nanoTime();
+		long deadline = t0 + seconds * 1000000000L;
+		int inserted = 0;
+		while (inserted < points.length && System.nanoTime() < deadline) {
+			for (int end = Math.min(points.length, inserted + 1000); inserted < end; inserted++) {
+				// an empty permutation only carries the objectives
+				IntPermutationSolution s = new IntPermutationSolution(0, M, 0);
+				System.arraycopy(points[inserted], 0, s.objectives(), 0, M);
+				archive.add(s);
+			}
+		}
+		double elapsed = (System.nanoTime() - t0) / 1e9;
+		System.out.printf("%d\t%d\t%s\t%d%s\t%d\t%.0f%n", M, points.length, name, inserted,
+				inserted < points.length ? " (partial)" : "", archive.size(), inserted / elapsed);
+	}
+
+	/**
+	 * @return n points with radius in [1, 1.1] in random positive directions
+	 */
+	public static double[][] points(int n, int M, long seed) {
+		Random random = new Random(seed);
+		double[][] points = new double[n][M];
+		for (double[] p : points) {
+			double norm = 0;
+			for (int m = 0; m < M; m++) {
+				p[m] = Math.abs(random.nextGaussian());
+				norm += p[m] * p[m];
+			}
+			double radius = (1 + 0.1 * random.nextDouble()) / Math.sqrt(norm);
+			for (int m = 0; m < M; m++)
+				p[m] *= radius;
+		}
+		return points;
+	}
+}
@@ -0,0 +1,105 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.uma.jmetal.solution.Solution;
+
+/**
+ * BiObjectiveHypervolume
+ * Exclusive hypervolume contributions of a bi-objective front from one sort and one sweep:
+ * sorted by decreasing second objective, a point contributes the box between itself, the first
+ * objective of its right neighbour and the second objective of its left neighbour, the reference
+ * point closing the box of the extreme points. O(n log n), against one hypervolume per removed
+ * point for WFGHypervolume.computeHypervolumeContribution(), which it replaces in SMSEMOA.
+ * As there, the reference point is the largest objectives of the front, from 0, plus the offset,
+ * and the front is returned by decreasing contribution, ties in decreasing second objective. The
+ * contributions are computed directly instead of as differences of hypervolumes, so rounding can
+ * order two nearly equal contributions differently.
+ * The front must be mutually non-dominated, as a front of a non-dominated sorting.
+ */
+public class BiObjectiveHypervolume<S extends Solution<?>> {
+
+	private final double offset;
+	private final List<S> copy = new ArrayList<S>();
+	private int[] order = new int[0];
+	private int[] buffer = new int[0];
+	private double[] key = new double[0];
+	private double[] f0 = new double[0];
+	private double[] f1 = new double[0];
+
+	public BiObjectiveHypervolume(double offset) {
+		this.offset = offset;
+	}
+
+	/**
+	 * Sorts front by decreasing exclusive hypervolume contribution, in place
+	 * @return front
+	 */
+	public List<S> computeHypervolumeContribution(List<S> front) {
+		int n = front.size();
+		if (n <= 1)
+			return front;
+		if (order.length < n) {
+			order = new int[n];
+			buffer = new int[n];
+			key = new double[n];
+			f0 = new double[n];
+			f1 = new double[n];
+		}
+		double r0 = 0;
+		double r1 = 0;
+		for (int i = 0; i < n; i++) {
+			double[] f = front.get(i).objectives();
+			r0 = Math.max(r0, f[0]);
+			r1 = Math.max(r1, f[1]);
+			key[i] = f[1];
+			order[i] = i;
+		}
+		r0 += offset;
+		r1 += offset;
+
+		// by decreasing f2, duplicates in their order
+		sortDescending(n);
+		copy.clear();
+		for (int i = 0; i < n; i++) {
+			double[] f = front.get(order[i]).objectives();
+			f0[i] = f[0];
+			f1[i] = f[1];
+			copy.add(front.get(order[i]));
+		}
+
+		for (int i = 0; i < n; i++) {
+			double right = i + 1 < n ? f0[i + 1] : r0;
+			double left = i > 0 ? f1[i - 1] : r1;
+			key[i] = (right - f0[i]) * (left - f1[i]);
+			order[i] = i;
+		}
+		sortDescending(n);
+		for (int i = 0; i < n; i++)
+			front.set(i, copy.get(order[i]));
+		return front;
+	}
+
+	/**
+	 * Stable merge sort of order[0..n) by decreasing key[order[i]]
+	 */
+	private void sortDescending(int n) {
+		for (int width = 1; width < n; width *= 2) {
+			for (int from = 0; from < n; from += 2 * width) {
+				int middle = Math.min(from + width, n);
+				int to = Math.min(from + 2 * width, n);
+				int i = from, j = middle, k = from;
+				while (i < middle && j < to)
+					buffer[k++] = key[order[j]] > key[order[i]] ? order[j++] : order[i++];
+				while (i < middle)
+					buffer[k++] = order[i++];
+				while (j < to)
+					buffer[k++] = order[j++];
+			}
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
+		}
+	}
+}
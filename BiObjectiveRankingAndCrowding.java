@@ -0,0 +1,208 @@
+package gecco24;
+
+import java.util.List;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.ConstraintHandling;
+
+/**
+ * BiObjectiveRankingAndCrowding
+ * Environmental selection of NSGAII for two objectives in O(n log n), instead of the O(n^2)
+ * non-dominated sorting of RankingAndCrowdingSelection. The joint population is sorted by
+ * overall constraint violation, then by the first and the second objective. Sweeping it in that
+ * order, a point is dominated by a front as soon as it is dominated by the last point placed
+ * there, and the fronts are ordered by that last point, so each point goes into the first front
+ * not dominating it, found by binary search. Every infeasible point is dominated by the points of
+ * smaller violation, as with DominanceComparator, so each violation level is swept on its own, its
+ * fronts following those of the previous levels. Within a front, points come by increasing first
+ * objective, that is by decreasing second objective, so the crowding distance of the front split
+ * by the population size takes one pass; objectives spanning no range add nothing to it.
+ * The buffers are kept across calls, so a generation allocates nothing once they have grown.
+ */
+public class BiObjectiveRankingAndCrowding<S extends Solution<?>> {
+
+	private int[] order = new int[0];
+	private int[] buffer = new int[0];
+	private int[] rank = new int[0];
+	private int[] frontStart = new int[0];
+	private int[] tail = new int[0]; // last point of each front of the current violation level
+	private double[] violation = new double[0];
+	private double[] f0 = new double[0];
+	private double[] f1 = new double[0];
+	private double[] key = new double[0];
+
+	/**
+	 * Clears result and fills it with the size best solutions of jointPopulation by rank, then
+	 * by crowding distance
+	 * @return result
+	 */
+	public List<S> execute(List<S> jointPopulation, int size, List<S> result) {
+		int n = jointPopulation.size();
+		ensureCapacity(n);
+		for (int i = 0; i < n; i++) {
+			S solution = jointPopulation.get(i);
+			violation[i] = ConstraintHandling.overallConstraintViolationDegree(solution);
+			f0[i] = solution.objectives()[0];
+			f1[i] = solution.objectives()[1];
+			order[i] = i;
+		}
+		sort(n);
+
+		int fronts = 0;
+		int levelFronts = 0;
+		for (int i = 0; i < n; i++) {
+			int p = order[i];
+			if (i > 0 && violation[p] != violation[order[i - 1]]) {
+				fronts += levelFronts;
+				levelFronts = 0;
+			}
+			// first front of the level whose last point does not dominate p
+			int low = 0;
+			int high = levelFronts;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (dominates(tail[middle], p))
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			tail[low] = p;
+			if (low == levelFronts)
+				levelFronts++;
+			rank[p] = fronts + low;
+		}
+		fronts += levelFronts;
+
+		// counting sort of the sorted points by rank, stable
+		for (int k = 0; k <= fronts; k++)
+			frontStart[k] = 0;
+		for (int i = 0; i < n; i++)
+			frontStart[rank[i] + 1]++;
+		for (int k = 0; k < fronts; k++)
+			frontStart[k + 1] += frontStart[k];
+		for (int i = 0; i < n; i++)
+			buffer[frontStart[rank[order[i]]]++] = order[i];
+		for (int k = fronts; k > 0; k--)
+			frontStart[k] = frontStart[k - 1];
+		frontStart[0] = 0;
+
+		result.clear();
+		int k = 0;
+		while (k < fronts && result.size() + frontStart[k + 1] - frontStart[k] <= size) {
+			for (int i = frontStart[k]; i < frontStart[k + 1]; i++)
+				result.add(jointPopulation.get(buffer[i]));
+			k++;
+		}
+		if (result.size() < size && k < fronts)
+			addMostSpread(jointPopulation, frontStart[k], frontStart[k + 1], size - result.size(), result);
+		return result;
+	}
+
+	/**
+	 * Adds the count points of front buffer[from..to) of largest crowding distance to result, ties
+	 * in increasing first objective
+	 */
+	private void addMostSpread(List<S> jointPopulation, int from, int to, int count, List<S> result) {
+		int m = to - from;
+		int first = buffer[from];
+		int last = buffer[to - 1];
+		double range0 = f0[last] - f0[first];
+		double range1 = f1[first] - f1[last];
+		for (int j = 0; j < m; j++) {
+			order[j] = buffer[from + j];
+			if (j == 0 || j == m - 1) {
+				key[order[j]] = Double.POSITIVE_INFINITY;
+				continue;
+			}
+			int previous = buffer[from + j - 1];
+			int next = buffer[from + j + 1];
+			double distance = 0;
+			if (range0 > 0)
+				distance += (f0[next] - f0[previous]) / range0;
+			if (range1 > 0)
+				distance += (f1[previous] - f1[next]) / range1;
+			key[order[j]] = distance;
+		}
+		// the merge sort reuses buffer, the front is now in order[0..m)
+		sortDescending(m);
+		for (int j = 0; j < count; j++)
+			result.add(jointPopulation.get(order[j]));
+	}
+
+	/**
+	 * @return true if point a dominates point b, a coming before b in the sort order
+	 */
+	private boolean dominates(int a, int b) {
+		return f1[a] <= f1[b] && (f0[a] < f0[b] || f1[a] < f1[b]);
+	}
+
+	/**
+	 * @return true if point a comes strictly before point b: smaller violation (larger degree),
+	 *         then smaller first objective, then smaller second objective
+	 */
+	private boolean before(int a, int b) {
+		if (violation[a] != violation[b])
+			return violation[a] > violation[b];
+		if (f0[a] != f0[b])
+			return f0[a] < f0[b];
+		return f1[a] < f1[b];
+	}
+
+	/**
+	 * Stable merge sort of order[0..n) by before()
+	 */
+	private void sort(int n) {
+		for (int width = 1; width < n; width *= 2) {
+			for (int from = 0; from < n; from += 2 * width) {
+				int middle = Math.min(from + width, n);
+				int to = Math.min(from + 2 * width, n);
+				int i = from, j = middle, k = from;
+				while (i < middle && j < to)
+					buffer[k++] = before(order[j], order[i]) ? order[j++] : order[i++];
+				while (i < middle)
+					buffer[k++] = order[i++];
+				while (j < to)
+					buffer[k++] = order[j++];
+			}
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
+		}
+	}
+
+	/**
+	 * Stable merge sort of order[0..n) by decreasing key[order[i]]
+	 */
+	private void sortDescending(int n) {
+		for (int width = 1; width < n; width *= 2) {
+			for (int from = 0; from < n; from += 2 * width) {
+				int middle = Math.min(from + width, n);
+				int to = Math.min(from + 2 * width, n);
+				int i = from, j = middle, k = from;
+				while (i < middle && j < to)
+					buffer[k++] = key[order[j]] > key[order[i]] ? order[j++] : order[i++];
+				while (i < middle)
+					buffer[k++] = order[i++];
+				while (j < to)
+					buffer[k++] = order[j++];
+			}
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
+		}
+	}
+
+	private void ensureCapacity(int n) {
+		if (order.length >= n)
+			return;
+		order = new int[n];
+		buffer = new int[n];
+		rank = new int[n];
+		frontStart = new int[n + 1];
+		tail = new int[n];
+		violation = new double[n];
+		f0 = new double[n];
+		f1 = new double[n];
+		key = new double[n];
+	}
+}
@@ -0,0 +1,202 @@
+package gecco24;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import org.uma.jmetal.util.errorchecking.JMetalException;
+
+/**
+ * BinaryInstance
+ * Compact binary problem instance file, memory-mapped on load.
+ * Layout (little endian): a 40 byte header
+ *   int magic, int version, int type, int n, int M, int K, int flags, int reserved, long checksum
+ * followed by the payload, whose content is defined by each problem's saveBinary/loadBinary.
+ * The payload holds the problem's arrays in their in-memory layout, so a loader only
+ * bulk-copies them out of the mapped file instead of parsing text. The checksum is the
+ * CRC32 of the payload.
+ *
+ * java gecco24.BinaryInstance textInstanceFile...
+ * converts text instances such as KP-100.txt or NK-50-10.txt to KP-100.bin, NK-50-10.bin
+ * next to them, the problem and its size are taken from the file name.
+ */
+public class BinaryInstance {
+
+	public static final String EXTENSION = ".bin";
+	public static final int MAGIC = 0x534C4F4D; // "MOLS"
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 40;
+
+	public static final int KP = 1;
+	public static final int NK = 2;
+	public static final int TSP = 3;
+	public static final int QAP = 4;
+
+	public final int type;
+	public final int n;
+	public final int M;
+	public final int K;
+	public final int flags;
+	private final ByteBuffer payload;
+
+	private BinaryInstance(int type, int n, int M, int K, int flags, ByteBuffer payload) {
+		this.type = type;
+		this.n = n;
+		this.M = M;
+		this.K = K;
+		this.flags = flags;
+		this.payload = payload;
+	}
+
+	/**
+	 * Payload to be filled by a problem's saveBinary, then passed to write()
+	 */
+	public static BinaryInstance create(int type, int n, int M, int K, int flags, long payloadBytes) {
+		if (payloadBytes > Integer.MAX_VALUE)
+			throw new JMetalException("Instance too large for a single buffer: " + payloadBytes + " bytes");
+		return new BinaryInstance(type, n, M, K, flags,
+				ByteBuffer.allocate((int) payloadBytes).order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	/**
+	 * Maps path read-only and checks its header and checksum
+	 */
+	public static BinaryInstance map(String path, int expectedType) {
+		try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC)
+				throw new JMetalException(path + " is not a binary instance file");
+			if (buffer.getInt(4) != VERSION)
+				throw new JMetalException(path + ": unsupported version " + buffer.getInt(4));
+			if (buffer.getInt(8) != expectedType)
+				throw new JMetalException(path + ": instance type " + buffer.getInt(8) + ", expected " + expectedType);
+			long checksum = buffer.getLong(32);
+			ByteBuffer payload = buffer.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN);
+			if (checksum(payload) != checksum)
+				throw new JMetalException(path + ": checksum mismatch");
+			return new BinaryInstance(buffer.getInt(8), buffer.getInt(12), buffer.getInt(16), buffer.getInt(20),
+					buffer.getInt(24), payload);
+		} catch (IOException e) {
+			throw new JMetalException(e);
+		}
+	}
+
+	/**
+	 * Writes header and payload to path, an existing file is not overwritten
+	 */
+	public void write(String path) {
+		File file = new File(path);
+		if (file.exists()) {
+			System.out.println("Save failed, file exists");
+			return;
+		}
+		payload.rewind();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(n).putInt(M).putInt(K).putInt(flags).putInt(0)
+				.putLong(checksum(payload));
+		header.flip();
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			FileChannel channel = out.getChannel();
+			while (header.hasRemaining())
+				channel.write(header);
+			while (payload.hasRemaining())
+				channel.write(payload);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static long checksum(ByteBuffer payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload.duplicate());
+		return crc.getValue();
+	}
+
+	/**
+	 * Reads the next count doubles of the payload in one bulk copy
+	 */
+	public double[] getDoubles(int count) {
+		double[] res = new double[count];
+		payload.asDoubleBuffer().get(res);
+		payload.position(payload.position() + count * Double.BYTES);
+		return res;
+	}
+
+	/**
+	 * Reads the next count ints of the payload, then skips to the next 8 byte boundary
+	 */
+	public int[] getInts(int count) {
+		int[] res = new int[count];
+		payload.asIntBuffer().get(res);
+		payload.position(align(payload.position() + count * Integer.BYTES));
+		return res;
+	}
+
+	public BinaryInstance putDoubles(double... values) {
+		payload.asDoubleBuffer().put(values);
+		payload.position(payload.position() + values.length * Double.BYTES);
+		return this;
+	}
+
+	public BinaryInstance putInts(int... values) {
+		payload.asIntBuffer().put(values);
+		payload.position(align(payload.position() + values.length * Integer.BYTES));
+		return this;
+	}
+
+	/**
+	 * @return bytes taken by count ints in the payload, padded so that doubles stay 8 byte aligned
+	 */
+	public static long intBytes(long count) {
+		return align(count * Integer.BYTES);
+	}
+
+	private static int align(long bytes) {
+		return (int) ((bytes + 7) & ~7L);
+	}
+
+	/**
+	 * Converts a text instance to a binary one next to it
+	 * @return the path of the binary instance
+	 */
+	public static String convert(String textPath) {
+		String name = new File(textPath).getName().replaceFirst("\\.txt$", "");
+		String[] size = name.split("-");
+		String binaryPath = textPath.replaceFirst("\\.txt$", "") + EXTENSION;
+		switch (size[0]) {
+		case "KP":
+			new Knapsack01(Integer.valueOf(size[1])).load(textPath).saveBinary(binaryPath);
+			break;
+		case "NK":
+			new MONKLand(Integer.valueOf(size[1]), Integer.valueOf(size[2])).load(textPath).saveBinary(binaryPath);
+			break;
+		case "TSP":
+			new MOTSP(Integer.valueOf(size[1])).load(textPath).saveBinary(binaryPath);
+			break;
+		case "QAP":
+			new MOQAP(Integer.valueOf(size[1])).load(textPath).saveBinary(binaryPath);
+			break;
+		default:
+			throw new JMetalException("Unknown instance name " + name + ", expected KP-n, NK-n-k, TSP-n or QAP-n");
+		}
+		return binaryPath;
+	}
+
+	public static void main(String[] args) {
+		if (args.length == 0)
+			throw new JMetalException("Missing argument: textInstanceFile...");
+		for (String path : args) {
+			long t0 = System.nanoTime();
+			String binaryPath = convert(path);
+			System.out.printf("%s -> %s (%.0f ms)%n", path, binaryPath, (System.nanoTime() - t0) / 1e6);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package gecco24;
+
+import org.uma.jmetal.operator.mutation.MutationOperator;
+import org.uma.jmetal.solution.binarysolution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.errorchecking.Check;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+/**
+ * BitStringFlipMutation
+ * Bit-flip mutation flipping every bit independently with mutationProbability.
+ * Instead of one random draw per bit, it jumps from flip to flip with geometrically
+ * distributed gaps, so a 1/n rate costs O(1) expected draws per solution.
+ * Intended for BitStringSolution, works on any BinarySolution.
+ */
+@SuppressWarnings("serial")
+public class BitStringFlipMutation implements MutationOperator<BinarySolution> {
+
+	private double mutationProbability;
+
+	public BitStringFlipMutation(double mutationProbability) {
+		Check.probabilityIsValid(mutationProbability);
+		this.mutationProbability = mutationProbability;
+	}
+
+	@Override
+	public double getMutationProbability() {
+		return mutationProbability;
+	}
+
+	@Override
+	public BinarySolution execute(BinarySolution solution) {
+		Check.notNull(solution);
+
+		doMutation(solution);
+		return solution;
+	}
+
+	private void doMutation(BinarySolution solution) {
+		if (mutationProbability <= 0)
+			return;
+		for (BinarySet variable : solution.variables()) {
+			int length = variable.getBinarySetLength();
+			if (mutationProbability >= 1) {
+				variable.flip(0, length);
+				continue;
+			}
+			double logNoFlip = Math.log1p(-mutationProbability);
+			for (int j = gap(logNoFlip, length); j < length; j += 1 + gap(logNoFlip, length))
+				variable.flip(j);
+		}
+	}
+
+	/**
+	 * @return number of bits left unflipped before the next flip, length if it is at least length,
+	 *         so a tiny probability whose gap overflows or is not finite ends the loop
+	 */
+	private int gap(double logNoFlip, int length) {
+		double gap = Math.floor(Math.log1p(-JMetalRandom.getInstance().nextDouble()) / logNoFlip);
+		return gap < length ? (int) gap : length;
+	}
+}
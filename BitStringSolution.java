@@ -0,0 +1,166 @@
+package gecco24;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.uma.jmetal.solution.binarysolution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+/**
+ * BitStringSolution
+ * A BinarySolution holding the whole bitstring as a single packed BinarySet (long[] words),
+ * instead of one BinarySet per bit. variables() is a list of that one BinarySet, so
+ * jMetal binary operators and SolutionListOutput keep working; copy() is a single array clone.
+ * Bit i of the problem is bit i of bits().
+ */
+@SuppressWarnings("serial")
+public class BitStringSolution implements BinarySolution {
+
+	private final BinarySet bits;
+	private final double[] objectives;
+	private final double[] constraints;
+	private final Map<Object, Object> attributes;
+	private final List<BinarySet> variables;
+
+	/**
+	 * Constructor, every bit set with probability 0.5
+	 */
+	public BitStringSolution(int numberOfBits, int numberOfObjectives, int numberOfConstraints) {
+		this(new BinarySet(numberOfBits), new double[numberOfObjectives], new double[numberOfConstraints],
+				new HashMap<Object, Object>());
+		for (int i = 0; i < numberOfBits; i += 64) {
+			long word = randomWord();
+			for (int j = i; j < Math.min(i + 64, numberOfBits); j++) {
+				if (((word >>> (j - i)) & 1L) != 0)
+					bits.set(j);
+			}
+		}
+	}
+
+	/**
+	 * Copy constructor
+	 */
+	public BitStringSolution(BitStringSolution solution) {
+		this((BinarySet) solution.bits.clone(), solution.objectives.clone(), solution.constraints.clone(),
+				new HashMap<Object, Object>(solution.attributes));
+	}
+
+	private BitStringSolution(BinarySet bits, double[] objectives, double[] constraints,
+			Map<Object, Object> attributes) {
+		this.bits = bits;
+		this.objectives = objectives;
+		this.constraints = constraints;
+		this.attributes = attributes;
+		this.variables = Collections.singletonList(bits);
+	}
+
+	public BinarySet bits() {
+		return bits;
+	}
+
+	@Override
+	public List<BinarySet> variables() {
+		return variables;
+	}
+
+	@Override
+	public double[] objectives() {
+		return objectives;
+	}
+
+	@Override
+	public double[] constraints() {
+		return constraints;
+	}
+
+	@Override
+	public Map<Object, Object> attributes() {
+		return attributes;
+	}
+
+	@Override
+	public int getNumberOfBits(int index) {
+		return bits.getBinarySetLength();
+	}
+
+	@Override
+	public int getTotalNumberOfBits() {
+		return bits.getBinarySetLength();
+	}
+
+	@Override
+	public BitStringSolution copy() {
+		return new BitStringSolution(this);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof BitStringSolution))
+			return false;
+		BitStringSolution that = (BitStringSolution) o;
+		return bits.equals(that.bits) && Arrays.equals(objectives, that.objectives)
+				&& Arrays.equals(constraints, that.constraints);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * bits.hashCode() + Arrays.hashCode(objectives);
+	}
+
+	@Override
+	public String toString() {
+		return "Variables: " + variables + " Objectives: " + Arrays.toString(objectives) + "\tConstraints: "
+				+ Arrays.toString(constraints) + "\tInfo: " + attributes;
+	}
+
+	/**
+	 * @return the packed bits of solution, the BinarySet itself for a BitStringSolution
+	 *         and a packed copy of the concatenated variables for any other BinarySolution
+	 */
+	public static BinarySet bits(BinarySolution solution) {
+		if (solution instanceof BitStringSolution)
+			return ((BitStringSolution) solution).bits;
+		BinarySet res = new BinarySet(solution.getTotalNumberOfBits());
+		int offset = 0;
+		for (BinarySet variable : solution.variables()) {
+			for (int j = variable.nextSetBit(0); j >= 0; j = variable.nextSetBit(j + 1))
+				res.set(offset + j);
+			offset += variable.getBinarySetLength();
+		}
+		return res;
+	}
+
+	/**
+	 * Flips bit i of the concatenated variables of solution
+	 */
+	public static void flip(BinarySolution solution, int i) {
+		if (solution instanceof BitStringSolution) {
+			((BitStringSolution) solution).bits.flip(i);
+			return;
+		}
+		for (BinarySet variable : solution.variables()) {
+			if (i < variable.getBinarySetLength()) {
+				variable.flip(i);
+				return;
+			}
+			i -= variable.getBinarySetLength();
+		}
+	}
+
+	/**
+	 * @return 64 uniformly random bits from JMetalRandom
+	 */
+	public static long randomWord() {
+		JMetalRandom random = JMetalRandom.getInstance();
+		long word = 0;
+		for (int i = 0; i < 4; i++)
+			word = (word << 16) | random.nextInt(0, 0xFFFF);
+		return word;
+	}
+}
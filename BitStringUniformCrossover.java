@@ -0,0 +1,90 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.uma.jmetal.operator.crossover.CrossoverOperator;
+import org.uma.jmetal.solution.binarysolution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.errorchecking.JMetalException;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+/**
+ * BitStringUniformCrossover
+ * Uniform crossover working on whole 64-bit words: every bit is exchanged between the two
+ * offspring with probability 0.5, using one random mask per variable instead of one random
+ * draw per bit. Intended for BitStringSolution, works on any BinarySolution.
+ */
+@SuppressWarnings("serial")
+public class BitStringUniformCrossover implements CrossoverOperator<BinarySolution> {
+	private double crossoverProbability;
+
+	/**
+	 * Constructor
+	 */
+	public BitStringUniformCrossover(double crossoverProbability) {
+		if ((crossoverProbability < 0) || (crossoverProbability > 1)) {
+			throw new JMetalException("Crossover probability value invalid: " + crossoverProbability);
+		}
+		this.crossoverProbability = crossoverProbability;
+	}
+
+	@Override
+	public double getCrossoverProbability() {
+		return crossoverProbability;
+	}
+
+	public void setCrossoverProbability(double crossoverProbability) {
+		this.crossoverProbability = crossoverProbability;
+	}
+
+	/**
+	 * Executes the operation
+	 *
+	 * @param parents An object containing an array of two solutions
+	 */
+	@Override
+	public List<BinarySolution> execute(List<BinarySolution> parents) {
+		if (null == parents) {
+			throw new JMetalException("Null parameter");
+		} else if (parents.size() != 2) {
+			throw new JMetalException("There must be two parents instead of " + parents.size());
+		}
+
+		return doCrossover(crossoverProbability, parents.get(0), parents.get(1));
+	}
+
+	public List<BinarySolution> doCrossover(double probability, BinarySolution parent1, BinarySolution parent2) {
+		List<BinarySolution> offspring = new ArrayList<>(2);
+		offspring.add((BinarySolution) parent1.copy());
+		offspring.add((BinarySolution) parent2.copy());
+
+		if (JMetalRandom.getInstance().nextDouble() < probability) {
+			for (int v = 0; v < parent1.variables().size(); v++) {
+				BinarySet x = offspring.get(0).variables().get(v);
+				BinarySet y = offspring.get(1).variables().get(v);
+				long[] words = new long[(x.getBinarySetLength() + 63) / 64];
+				for (int w = 0; w < words.length; w++)
+					words[w] = BitStringSolution.randomWord();
+				// exchanging a bit only changes the offspring where the parents differ
+				BitSet exchange = (BitSet) x.clone();
+				exchange.xor(y);
+				exchange.and(BitSet.valueOf(words));
+				x.xor(exchange);
+				y.xor(exchange);
+			}
+		}
+		return offspring;
+	}
+
+	@Override
+	public int getNumberOfRequiredParents() {
+		return 2;
+	}
+
+	@Override
+	public int getNumberOfGeneratedChildren() {
+		return 2;
+	}
+}
@@ -0,0 +1,211 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+/**
+ * ConcurrentArchive
+ * Thread-safe view of a non-dominated archive shared by the walkers of a local search, whose reads
+ * take no lock: an immutable snapshot of the members, and of the objectives of the feasible ones,
+ * is published through a volatile field after each insertion. A query first looks for a member of
+ * the snapshot dominating or equal to the solution, by binary search over the front sorted by the
+ * first objective with two objectives and by a scan otherwise, and rejects the solution without
+ * any lock if one is found. Only the other solutions, mostly accepted ones, are queried again
+ * under the writer lock against the archive itself and inserted, and the next snapshot is copied
+ * from the previous one in O(n); insertions are rare next to rejections. A query reading the
+ * snapshot an insertion replaces is answered as if made just before that insertion.
+ * sample(), get(), size() and getSolutionList() read the snapshot.
+ * Infeasible solutions are rejected by any feasible member, as under DominanceComparator.
+ */
+@SuppressWarnings("serial")
+public class ConcurrentArchive<S extends Solution> implements Archive<S>, DominanceQuery<S> {
+
+	private final Archive<S> archive;
+	private final Comparator<S> dominance;
+	private volatile Snapshot<S> snapshot;
+
+	/**
+	 * @param archive   archive accessed through this view only from then on
+	 * @param dominance comparator of the archive, for the archives that are not a DominanceQuery
+	 */
+	public ConcurrentArchive(Archive<S> archive, Comparator<S> dominance) {
+		this.archive = archive;
+		this.dominance = dominance;
+		this.snapshot = Snapshot.of(archive.getSolutionList());
+	}
+
+	@Override
+	public Relation query(S solution, Predicate<Relation> insert) {
+		Relation relation = snapshot.rejection(solution);
+		if (relation != null)
+			return relation;
+		return insert(solution, insert);
+	}
+
+	/**
+	 * Queries the archive itself, and publishes the next snapshot if solution is inserted
+	 */
+	private synchronized Relation insert(S solution, Predicate<Relation> insert) {
+		Relation relation = DominanceQuery.query(archive, solution, insert, dominance);
+		if (relation.accepted() && insert.test(relation))
+			snapshot = snapshot.after(solution, archive.getSolutionList());
+		return relation;
+	}
+
+	@Override
+	public boolean add(S solution) {
+		return query(solution, r -> true).accepted();
+	}
+
+	/**
+	 * @return a uniformly random member, or null if empty
+	 */
+	public S sample() {
+		List<S> members = snapshot.members;
+		int size = members.size();
+		return size == 0 ? null : members.get(JMetalRandom.getInstance().nextInt(0, size - 1));
+	}
+
+	@Override
+	public S get(int index) {
+		return snapshot.members.get(index);
+	}
+
+	/**
+	 * @return the members at the last insertion, an unmodifiable list
+	 */
+	@Override
+	public List<S> getSolutionList() {
+		return snapshot.members;
+	}
+
+	@Override
+	public int size() {
+		return snapshot.members.size();
+	}
+
+	@Override
+	public Archive<S> join(Archive<S> archive) {
+		for (S solution : archive.getSolutionList())
+			add(solution);
+		return this;
+	}
+
+	private static final class Snapshot<S extends Solution> {
+		final List<S> members;
+		final double[][] front; // objectives of the feasible members, by increasing first objective with two objectives
+
+		private Snapshot(List<S> members, double[][] front) {
+			this.members = members;
+			this.front = front;
+		}
+
+		static <S extends Solution> Snapshot<S> of(List<S> solutions) {
+			List<double[]> feasible = new ArrayList<double[]>();
+			for (S solution : solutions)
+				if (violation(solution) == 0)
+					feasible.add(solution.objectives().clone());
+			double[][] front = feasible.toArray(new double[feasible.size()][]);
+			if (front.length > 0 && front[0].length == 2)
+				Arrays.sort(front, (a, b) -> Double.compare(a[0], b[0]));
+			return new Snapshot<S>(Collections.unmodifiableList(new ArrayList<S>(solutions)), front);
+		}
+
+		/**
+		 * @return DOMINATED or EQUAL if a member rejects solution, null if the archive has to tell
+		 */
+		Relation rejection(S solution) {
+			if (violation(solution) < 0)
+				return front.length > 0 ? Relation.DOMINATED : null;
+			double[] f = solution.objectives();
+			if (f.length == 2) {
+				// of the members not after f in the first objective, the last one is the best in the second
+				int low = 0;
+				int high = front.length;
+				while (low < high) {
+					int middle = (low + high) >>> 1;
+					if (front[middle][0] <= f[0])
+						low = middle + 1;
+					else
+						high = middle;
+				}
+				return low > 0 ? rejection(front[low - 1], f) : null;
+			}
+			for (double[] member : front) {
+				Relation relation = rejection(member, f);
+				if (relation != null)
+					return relation;
+			}
+			return null;
+		}
+
+		private static Relation rejection(double[] member, double[] f) {
+			for (int m = 0; m < f.length; m++)
+				if (member[m] > f[m])
+					return null;
+			return Arrays.equals(member, f) ? Relation.EQUAL : Relation.DOMINATED;
+		}
+
+		/**
+		 * @return the snapshot once solution is inserted, members being the archive's new members
+		 */
+		Snapshot<S> after(S solution, List<S> members) {
+			List<S> copy = Collections.unmodifiableList(new ArrayList<S>(members));
+			if (violation(solution) < 0)
+				return new Snapshot<S>(copy, front); // no feasible member, the front stays empty
+			double[] f = solution.objectives().clone();
+			double[][] next = new double[front.length + 1][];
+			int size = 0;
+			boolean placed = false;
+			for (double[] member : front) {
+				if (dominates(f, member))
+					continue;
+				if (!placed && f.length == 2 && member[0] > f[0]) {
+					next[size++] = f;
+					placed = true;
+				}
+				next[size++] = member;
+			}
+			if (!placed)
+				next[size++] = f;
+			Snapshot<S> snapshot = new Snapshot<S>(copy, Arrays.copyOf(next, size));
+			// an archive dropping members for another reason is read again
+			return size == feasible(copy) ? snapshot : of(copy);
+		}
+
+		private static boolean dominates(double[] a, double[] b) {
+			boolean better = false;
+			for (int m = 0; m < a.length; m++) {
+				if (a[m] > b[m])
+					return false;
+				if (a[m] < b[m])
+					better = true;
+			}
+			return better;
+		}
+
+		private static <S extends Solution> int feasible(List<S> solutions) {
+			int count = 0;
+			for (S solution : solutions)
+				if (violation(solution) == 0)
+					count++;
+			return count;
+		}
+
+		private static double violation(Solution<?> solution) {
+			double violation = 0;
+			for (double c : solution.constraints())
+				if (c < 0)
+					violation += c;
+			return violation;
+		}
+	}
+}
@@ -95,6 +95,15 @@ public class CycleCrossover implements CrossoverOperator<PermutationSolution<Int
 		int n = parents.get(0).variables().size();
 
 		if (crossoverRandomGenerator.getRandomValue() < probability) {
+			int[] parent0 = IntPermutationSolution.intArray(parents.get(0));
+			int[] parent1 = IntPermutationSolution.intArray(parents.get(1));
+			int[] child0 = new int[n];
+			int[] child1 = new int[n];
+			// position of every element in the first parent
+			int[] position0 = new int[n];
+			for (int i = 0; i < n; i++)
+				position0[parent0[i]] = i;
+
 			// Initialize a boolean array to mark the visited elements
 			boolean[] visited = new boolean[n];
 			Arrays.fill(visited, false);
@@ -117,24 +126,24 @@ public class CycleCrossover implements CrossoverOperator<PermutationSolution<Int
 						if (cycle % 2 == 0) {
 							// Even cycle: copy from the first parent to the first offspring
 							// and from the second parent to the second offspring
-							offspring.get(0).variables().set(current, parents.get(0).variables().get(current));
-							offspring.get(1).variables().set(current, parents.get(1).variables().get(current));
+							child0[current] = parent0[current];
+							child1[current] = parent1[current];
 						} else {
 							// Odd cycle: copy from the second parent to the first offspring
 							// and from the first parent to the second offspring
-							offspring.get(0).variables().set(current, parents.get(1).variables().get(current));
-							offspring.get(1).variables().set(current, parents.get(0).variables().get(current));
+							child0[current] = parent1[current];
+							child1[current] = parent0[current];
 						}
 
 						// Get the next element from the second parent
-						int next = parents.get(0).variables().indexOf(parents.get(1).variables().get(current));
+						int next = position0[parent1[current]];
 
 						// If the next element is the same as the first element of the cycle, break the
 						// loop
 						if (next == i) {
 							break;
 						}
-						if (System.currentTimeMillis() - t0 > 1000) System.out.println("Dead lock warning, i: "+i+", x[i]:"+parents.get(0).variables().get(i)+", next: "+next);
+						if (System.currentTimeMillis() - t0 > 1000) System.out.println("Dead lock warning, i: "+i+", x[i]:"+parent0[i]+", next: "+next);
 						// Otherwise, update the current element
 						current = next;
 					}
@@ -143,6 +152,8 @@ public class CycleCrossover implements CrossoverOperator<PermutationSolution<Int
 					cycle++;
 				}
 			}
+			IntPermutationSolution.assign(offspring.get(0), child0);
+			IntPermutationSolution.assign(offspring.get(1), child1);
 		}
 
 		return offspring;
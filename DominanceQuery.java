@@ -0,0 +1,68 @@
+package gecco24;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
+
+/**
+ * DominanceQuery
+ * An archive that tells in a single query how a solution relates to its members,
+ * optionally inserting it in the same operation.
+ */
+public interface DominanceQuery<S> {
+
+	public enum Relation {
+		DOMINATES, // dominates at least one member
+		DOMINATED, // dominated by a member
+		EQUAL, // same objectives as a member
+		NONDOMINATED; // mutually non-dominated with every member
+
+		/**
+		 * @return true if a non-dominated archive accepts the solution
+		 */
+		public boolean accepted() {
+			return this == DOMINATES || this == NONDOMINATED;
+		}
+	}
+
+	/**
+	 * @param insert decides, from the relation, whether an accepted solution is inserted
+	 * @return relation of solution to the members before the insertion
+	 */
+	public Relation query(S solution, Predicate<Relation> insert);
+
+	/**
+	 * Queries archive, with a single scan of its members if it is not a DominanceQuery
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S extends Solution> Relation query(Archive<S> archive, S solution, Predicate<Relation> insert,
+			Comparator<S> dominance) {
+		if (archive instanceof DominanceQuery)
+			return ((DominanceQuery<S>) archive).query(solution, insert);
+		Relation relation = scan(archive.getSolutionList(), solution, dominance);
+		if (relation.accepted() && insert.test(relation))
+			archive.add(solution);
+		return relation;
+	}
+
+	/**
+	 * Relation of solution to mutually non-dominated members, stops at the first member
+	 * it dominates, is dominated by or equals, as only one such relation can hold
+	 */
+	public static <S extends Solution> Relation scan(List<S> members, S solution, Comparator<S> dominance) {
+		for (S member : members) {
+			int flag = dominance.compare(solution, member);
+			if (flag < 0)
+				return Relation.DOMINATES;
+			if (flag > 0)
+				return Relation.DOMINATED;
+			if (Arrays.equals(solution.objectives(), member.objectives()))
+				return Relation.EQUAL;
+		}
+		return Relation.NONDOMINATED;
+	}
+}
@@ -0,0 +1,179 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.solution.binarysolution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+
+/**
+ * EvaluationBenchmark
+ * Measures evaluate() throughput when 1..numberOfCores threads share one problem
+ * instance, as all runs of a problem do in ExperimentRunner.
+ *
+ * java gecco24.EvaluationBenchmark [problemInfoDirectory] [secondsPerMeasure]
+ * java gecco24.EvaluationBenchmark nk [problemInfoDirectory] [secondsPerMeasure]
+ * Without a data directory, random instances of the tested sizes are generated.
+ * The nk mode compares single-threaded MONKLand.evaluate() on NK-50-10 and NK-200-10 with
+ * the former evaluation, which sorted the loci of every contribution on each call and
+ * read one double[M][N][2^(K+1)] table per objective.
+ */
+public class EvaluationBenchmark {
+
+	private static final int SOLUTIONS_PER_THREAD = 64;
+
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length > 0 && args[0].equals("nk")) {
+			nkLayout(args.length > 1 ? args[1] : null, args.length > 2 ? Integer.valueOf(args[2]) : 2);
+			return;
+		}
+		String dir = args.length > 0 ? args[0] : null;
+		int seconds = args.length > 1 ? Integer.valueOf(args[1]) : 2;
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		List<Problem> problems = dir == null
+				? List.of(new Knapsack01(1000), new MONKLand(200, 10), new MOTSP(500), new MOQAP(200))
+				: List.of(new Knapsack01(1000).load(dir + "KP-1000.txt"),
+						new MONKLand(200, 10).load(dir + "NK-200-10.txt"),
+						new MOTSP(500).load(dir + "TSP-500.txt"),
+						new MOQAP(200).load(dir + "QAP-200.txt"));
+
+		System.out.println("problem\tthreads\tevals/s\tspeed-up\tefficiency");
+		for (Problem problem : problems) {
+			throughput(problem, 1, 1000); // warm-up
+			double base = 0;
+			for (int threads = 1; threads <= cores; threads *= 2) {
+				double rate = throughput(problem, threads, seconds * 1000L);
+				if (threads == 1)
+					base = rate;
+				System.out.printf("%s\t%d\t%.0f\t%.2f\t%.2f%n", problem.getName(), threads, rate, rate / base,
+						rate / base / threads);
+			}
+		}
+	}
+
+	/**
+	 * @return evaluations per second of threads concurrently evaluating on the shared problem
+	 */
+	public static double throughput(Problem problem, int threads, long millis) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicLong total = new AtomicLong();
+		for (int t = 0; t < threads; t++) {
+			List<Object> solutions = new ArrayList<Object>(SOLUTIONS_PER_THREAD);
+			for (int i = 0; i < SOLUTIONS_PER_THREAD; i++)
+				solutions.add(problem.createSolution());
+			executor.submit(() -> {
+				start.await();
+				long count = 0;
+				long deadline = System.nanoTime() + millis * 1000000L;
+				while (System.nanoTime() < deadline) {
+					for (Object s : solutions)
+						problem.evaluate(s);
+					count += solutions.size();
+				}
+				total.addAndGet(count);
+				return null;
+			});
+		}
+		long t0 = System.nanoTime();
+		start.countDown();
+		executor.shutdown();
+		executor.awaitTermination(millis + 60000, TimeUnit.MILLISECONDS);
+		long elapsed = System.nanoTime() - t0;
+		return total.get() * 1e9 / elapsed;
+	}
+
+	private static void nkLayout(String dir, int seconds) {
+		List<MONKLand> problems = dir == null ? List.of(new MONKLand(50, 10), new MONKLand(200, 10))
+				: List.of(new MONKLand(50, 10).load(dir + "NK-50-10.txt"),
+						new MONKLand(200, 10).load(dir + "NK-200-10.txt"));
+
+		System.out.println("problem\tsorted evals/s\tprecomputed evals/s\tspeed-up");
+		for (MONKLand problem : problems) {
+			List<BinarySolution> solutions = new ArrayList<BinarySolution>(SOLUTIONS_PER_THREAD);
+			for (int i = 0; i < SOLUTIONS_PER_THREAD; i++)
+				solutions.add(problem.createSolution());
+			SortedLociEvaluation reference = new SortedLociEvaluation(problem);
+			for (BinarySolution s : solutions) {
+				double[] expected = problem.evaluate(s).objectives().clone();
+				if (!Arrays.equals(expected, reference.evaluate(s).objectives()))
+					throw new IllegalStateException(problem.getName() + ": evaluations differ");
+			}
+
+			rate(() -> solutions.forEach(reference::evaluate), solutions.size(), 1000); // warm-up
+			rate(() -> solutions.forEach(problem::evaluate), solutions.size(), 1000);
+			double sorted = rate(() -> solutions.forEach(reference::evaluate), solutions.size(), seconds * 1000L);
+			double precomputed = rate(() -> solutions.forEach(problem::evaluate), solutions.size(), seconds * 1000L);
+			System.out.printf("%s\t%.0f\t%.0f\t%.2f%n", problem.getName(), sorted, precomputed, precomputed / sorted);
+		}
+	}
+
+	/**
+	 * @return evaluations per second of repeatedly running batch, which performs batchSize evaluations
+	 */
+	private static double rate(Runnable batch, int batchSize, long millis) {
+		long count = 0;
+		long t0 = System.nanoTime();
+		long deadline = t0 + millis * 1000000L;
+		while (System.nanoTime() < deadline) {
+			batch.run();
+			count += batchSize;
+		}
+		return count * 1e9 / (System.nanoTime() - t0);
+	}
+
+	/**
+	 * The MONKLand evaluation before the loci and contributions were precomputed,
+	 * kept as the reference of the nk benchmark
+	 */
+	private static class SortedLociEvaluation {
+		private final MONKLand problem;
+		private final double[][][] mat;
+		private final int[] bits, indexes, nicheBits;
+
+		SortedLociEvaluation(MONKLand problem) {
+			this.problem = problem;
+			this.mat = new double[problem.M][problem.N][problem.matSize];
+			for (int m = 0; m < problem.M; m++)
+				for (int i = 0; i < problem.N; i++)
+					for (int j = 0; j < problem.matSize; j++)
+						mat[m][i][j] = problem.contribution(m, i, j);
+			this.bits = new int[problem.N];
+			this.indexes = new int[problem.K + 1];
+			this.nicheBits = new int[problem.K + 1];
+		}
+
+		BinarySolution evaluate(BinarySolution solution) {
+			int N = problem.N, M = problem.M, K = problem.K;
+			BinarySet packed = BitStringSolution.bits(solution);
+			for (int i = 0; i < N; i++)
+				bits[i] = packed.get(i) ? 1 : 0;
+			double[] obj = solution.objectives();
+			Arrays.fill(obj, 0);
+			for (int i = 0; i < N; i++) {
+				for (int m = 0; m < M; m++) {
+					System.arraycopy(problem.links[m][i], 0, indexes, 0, K);
+					indexes[K] = i;
+					Arrays.sort(indexes);
+					int patternIndex = 0;
+					for (int j = 0; j < K + 1; j++) {
+						nicheBits[j] = bits[indexes[j]];
+						patternIndex = (patternIndex << 1) | nicheBits[j];
+					}
+					obj[m] += mat[m][i][patternIndex];
+				}
+			}
+			for (int m = 0; m < M; m++)
+				obj[m] = 1 - obj[m] / N;
+			return solution;
+		}
+	}
+}
@@ -11,16 +11,10 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.function.BiFunction;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.uma.jmetal.algorithm.multiobjective.moead.AbstractMOEAD;
 import org.uma.jmetal.operator.crossover.CrossoverOperator;
-import org.uma.jmetal.operator.crossover.impl.UniformCrossover;
 import org.uma.jmetal.operator.mutation.MutationOperator;
-import org.uma.jmetal.operator.mutation.impl.BitFlipMutation;
 import org.uma.jmetal.operator.mutation.impl.PermutationSwapMutation;
 import org.uma.jmetal.operator.selection.SelectionOperator;
 import org.uma.jmetal.operator.selection.impl.BinaryTournamentSelection;
@@ -28,6 +22,8 @@ import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.solution.binarysolution.BinarySolution;
 import org.uma.jmetal.solution.permutationsolution.PermutationSolution;
+import org.uma.jmetal.util.archive.Archive;
+import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 import org.uma.jmetal.util.binarySet.BinarySet;
 import org.uma.jmetal.util.comparator.DominanceComparator;
 import org.uma.jmetal.util.errorchecking.JMetalException;
@@ -40,6 +36,27 @@ import org.uma.jmetal.util.legacy.qualityindicator.impl.hypervolume.impl.WFGHype
 public class ExperimentRunner {
 
 	private static boolean debug = true;
+	private static boolean checkDelta = false;
+	// archive of every algorithm: "list" for jMetal's NonDominatedSolutionListArchive, "ndtree" for
+	// NDTreeArchive, "sorted" for SortedBiObjectiveArchive on bi-objective problems and NDTreeArchive otherwise
+	private static String archiveType = "sorted";
+	// capacity of the GenotypeCache of the local searches, 0 to disable it. Unless cache hits are
+	// counted as evaluations, a run that only revisits genotypes then ends on the runtime limit
+	private static int genotypeCacheSize = 0;
+	private static boolean countCachedEvaluations = true;
+	// local searches scan the neighbourhood in pseudo-random order instead of index order
+	private static boolean shuffledNeighbourhood = false;
+	// threads evaluating the neighbourhood of each PLS candidate, on top of the runs' own threads.
+	// The results do not depend on it; above 1 the PLS runs without the GenotypeCache
+	private static int plsParallelism = 1;
+	// walkers of a multi-walker SEMO or PLS run, exploring at the same time on their own threads and
+	// sharing its archive and budget (scaling measured by WalkerBenchmark); above 1 without the GenotypeCache
+	private static int localSearchWalkers = 1;
+	// threads evaluating the offspring of an NSGAII generation or of a MOEAD batch, on top of the runs'
+	// own threads; the results do not depend on it. MOEAD breeds moeadBatchSize offspring before
+	// evaluating them and updating their neighbourhoods in turn, 1 for the sequential MOEA/D
+	private static int evaluationThreads = 1;
+	private static int moeadBatchSize = 1;
 
 	private static int INDEPENDENT_RUNS;
 	private static String experimentBaseDirectory;
@@ -96,19 +113,28 @@ public class ExperimentRunner {
 		if (debug)
 			System.out.println("Loading problems instances ");
 		long t0 = System.currentTimeMillis();
-		List<Problem> problems = List.of(new Knapsack01(100).load(problemInfoDirectory + "KP-100.txt"),
-				new Knapsack01(1000).load(problemInfoDirectory + "KP-1000.txt"),
-				new MONKLand(50, 10).load(problemInfoDirectory + "NK-50-10.txt"),
-				new MONKLand(200, 10).load(problemInfoDirectory + "NK-200-10.txt"),
-				new MOTSP(50).load(problemInfoDirectory + "TSP-50.txt"),
-				new MOTSP(500).load(problemInfoDirectory + "TSP-500.txt"),
-				new MOQAP(50).load(problemInfoDirectory + "QAP-50.txt"),
-				new MOQAP(200).load(problemInfoDirectory + "QAP-200.txt"));
+		List<Problem> problems = List.of(new Knapsack01(100).load(instance("KP-100")),
+				new Knapsack01(1000).load(instance("KP-1000")),
+				new MONKLand(50, 10).load(instance("NK-50-10")),
+				new MONKLand(200, 10).load(instance("NK-200-10")),
+				new MOTSP(50).load(instance("TSP-50")),
+				new MOTSP(500).load(instance("TSP-500")),
+				new MOQAP(50).load(instance("QAP-50")),
+				new MOQAP(200).load(instance("QAP-200")));
 		if (debug)
 			System.out.println("  Done (" + (System.currentTimeMillis() - t0) + "ms)");
 		return problems;
 	}
 
+	/**
+	 * @return path of the named instance in problemInfoDirectory, the binary one if it has been
+	 *         converted with BinaryInstance
+	 */
+	private static String instance(String name) {
+		String binary = problemInfoDirectory + name + BinaryInstance.EXTENSION;
+		return new File(binary).exists() ? binary : problemInfoDirectory + name + ".txt";
+	}
+
 	private static List<ZAlgorithm> setupTasks(List<Problem> problems) {
 		var tasks = new ArrayList<ZAlgorithm>(60);
 		for (int run = 0; run < INDEPENDENT_RUNS; run++) {
@@ -202,8 +228,8 @@ public class ExperimentRunner {
 		int matingPoolSize = N;
 		int offSpringPoolSize = N;
 		if (problem.createSolution() instanceof BinarySolution) {
-			crossover = new UniformCrossover(1.0);
-			mutation = new BitFlipMutation(1.0 / problem.getNumberOfVariables());
+			crossover = new BitStringUniformCrossover(1.0);
+			mutation = new BitStringFlipMutation(1.0 / problem.getNumberOfVariables());
 		} else {
 			crossover = new OrderCrossover(1.0);
 			mutation = new InversionMutation(0.05);
@@ -216,11 +242,13 @@ public class ExperimentRunner {
 		selection = new BinaryTournamentSelection(new DominanceComparator());
 
 		NSGAII nsgaii = new NSGAII(problem, maxEvaluations, N, matingPoolSize, offSpringPoolSize, crossover, mutation,
-				selection, new SequentialSolutionListEvaluator<>());
+				selection, evaluationThreads > 1 ? new ParallelSolutionListEvaluator<>(evaluationThreads)
+						: new SequentialSolutionListEvaluator<>());
+		nsgaii.setArchive(createArchive(problem));
 		return nsgaii;
 	}
 
-	private static SMSEMOA createSMSEMOA(Problem problem, int T, int N) {
+	public static SMSEMOA createSMSEMOA(Problem problem, int T, int N) {
 		int maxEvaluations = N * T;
 		double offset = 100.0;
 
@@ -229,8 +257,8 @@ public class ExperimentRunner {
 		MutationOperator mutation;
 
 		if (problem.createSolution() instanceof BinarySolution) {
-			crossover = new UniformCrossover(1.0);
-			mutation = new BitFlipMutation(1.0 / problem.getNumberOfVariables());
+			crossover = new BitStringUniformCrossover(1.0);
+			mutation = new BitStringFlipMutation(1.0 / problem.getNumberOfVariables());
 		} else {
 			crossover = new OrderCrossover(1.0);
 			mutation = new InversionMutation(0.05);
@@ -244,6 +272,7 @@ public class ExperimentRunner {
 
 		SMSEMOA smsemoa = new SMSEMOA(problem, maxEvaluations, N, offset, crossover, mutation, selection,
 				new DominanceComparator(), hv);
+		smsemoa.setArchive(createArchive(problem));
 
 		return smsemoa;
 	}
@@ -256,8 +285,8 @@ public class ExperimentRunner {
 		int maxEvaluations = T * N;
 
 		if (problem.createSolution() instanceof BinarySolution) {
-			crossover = new UniformCrossover(1);
-			mutation = new BitFlipMutation(1.0 / problem.getNumberOfVariables());
+			crossover = new BitStringUniformCrossover(1.0);
+			mutation = new BitStringFlipMutation(1.0 / problem.getNumberOfVariables());
 		} else {
 			crossover = new OrderCrossover(1.0);
 			mutation = new InversionMutation(0.05);
@@ -277,105 +306,92 @@ public class ExperimentRunner {
 				maximumNumberOfReplacedSolutions, // 2009 MOEAD Setting,
 				neighborSize);
 		moead.setOtherFunctionType(MOEAD.OtherFunctionType.TCHEdiv);
+		moead.setArchive(createArchive(problem));
+		moead.setParallelism(evaluationThreads);
+		moead.setBatchSize(moeadBatchSize);
 
 		return moead;
 	}
 	
-	public static List<List<Integer>> neighbourIndices(int n, int d) {
-		if (d == 1) 
-	        return IntStream.range(0, n).mapToObj(i -> List.of(i)).collect(Collectors.toList());
-	    if (d == 2) 
-	        return IntStream.range(0, n).boxed().flatMap(i -> IntStream.range(i + 1, n)
-	        		.mapToObj(j -> List.of(i, j))).collect(Collectors.toList());
-	    return Collections.emptyList(); // Return an empty list for unsupported d values
-	}
-	
-	public static Supplier<List<List<Integer>>> getIndexGenerator(Problem problem) {
+	public static Neighbourhood getNeighbourhood(Problem problem) {
 		if (problem.getName().contains("NK")) 
-			return (() -> neighbourIndices(problem.getNumberOfVariables(), 1));
-		return (() -> neighbourIndices(problem.getNumberOfVariables(), 2));
+			return new Neighbourhood(problem.getNumberOfVariables(), 1, shuffledNeighbourhood);
+		return new Neighbourhood(problem.getNumberOfVariables(), 2, shuffledNeighbourhood);
 	}
 	
-	public static BiFunction<Solution, List<Integer>, Solution> getNeighbourGenerator(Problem problem) {
-		if (problem.createSolution() instanceof BinarySolution) {
-			if (problem.getName().contains("NK")) {
-				return ( (x, index) -> {
-					BinarySolution s = (BinarySolution) x.copy();
-					s.attributes().remove("neighbourIndices");
-					s.attributes().remove("progress");
-					s.variables().get( index.get(0) ).flip(0);
-					return s;
-				});
-			}
-			if (problem.getName().contains("Knapsack") || problem.getName().contains("KP")) {
-				return ( (x, index) -> {
-					BinarySolution s = (BinarySolution) x.copy();
-					s.attributes().remove("neighbourIndices");
-					s.attributes().remove("progress");
-					s.variables().get( index.get(0) ).flip(0);
-					s.variables().get( index.get(1) ).flip(0);
-					return s;
-				});
-			}
-		} else {
-			if (problem.getName().contains("TSP")) {
-				return ( (x, index) -> {
-					PermutationSolution s = (PermutationSolution) x.copy();
-					s.attributes().remove("neighbourIndices");
-					s.attributes().remove("progress");
-					Collections.reverse(s.variables().subList(index.get(0), index.get(1) + 1));
-					return s;
-				});
-			}
-			if (problem.getName().contains("QAP")) {
-				return ( (x, index) -> {
-					PermutationSolution s = (PermutationSolution) x.copy();
-					s.attributes().remove("neighbourIndices");
-					s.attributes().remove("progress");
-					Collections.swap(s.variables(), index.get(0), index.get(1));
-					return s;
-				});
-			}
-		}
-		return null;
+	/**
+	 * @param cache genotype cache of the neighbours, or null
+	 * @return the neighbourhood of problem explored in place
+	 */
+	public static NeighbourMoves getNeighbourMoves(Problem problem, GenotypeCache cache) {
+		NeighbourMoves moves = new NeighbourMoves(problem, getNeighbourhood(problem), cache);
+		moves.setCheck(checkDelta);
+		return moves;
 	}
 
 	public static SEMO createSEMO(Problem problem) {
-		Supplier<List<List<Integer>>> indexGenerator = getIndexGenerator(problem);
-		BiFunction<Solution, List<Integer>, Solution> neighbourGenerator = getNeighbourGenerator(problem);
+		NeighbourMoves moves = getNeighbourMoves(problem, localSearchWalkers > 1 ? null : createGenotypeCache(problem));
 
-		SEMO semo = new SEMO(problem, indexGenerator, neighbourGenerator, new DominanceComparator());
+		SEMO semo = new SEMO(problem, moves, new DominanceComparator());
+		semo.setWalkers(localSearchWalkers);
 		semo.setPrompt(false);
 		semo.setMaxEvaluations(maxEval);
+		semo.setArchive(createArchive(problem));
 		return semo;
 	}
 
 	public static PLS createPLS(Problem problem) {
-		Supplier<List<List<Integer>>> indexGenerator = getIndexGenerator(problem);
-		BiFunction<Solution, List<Integer>, Solution> neighbourGenerator = getNeighbourGenerator(problem);
+		NeighbourMoves moves = getNeighbourMoves(problem,
+				plsParallelism > 1 || localSearchWalkers > 1 ? null : createGenotypeCache(problem));
 
-		PLS pls = new PLS(problem, indexGenerator, neighbourGenerator, new DominanceComparator());
+		PLS pls = new PLS(problem, moves, new DominanceComparator());
+		pls.setParallelism(plsParallelism);
+		pls.setWalkers(localSearchWalkers);
 		pls.setPrompt(false);
 		pls.setMaxEvaluations(maxEval);
+		pls.setArchive(createArchive(problem));
 		return pls;
 	}
 
 	public static ATPLS createATPLS(Problem problem) {
-		Supplier<List<List<Integer>>> indexGenerator = getIndexGenerator(problem);
-		BiFunction<Solution, List<Integer>, Solution> neighbourGenerator = getNeighbourGenerator(problem);
+		NeighbourMoves moves = getNeighbourMoves(problem, createGenotypeCache(problem));
 		
-		ATPLS atpls = new ATPLS(problem, indexGenerator, neighbourGenerator, new DominanceComparator());
+		ATPLS atpls = new ATPLS(problem, moves, new DominanceComparator());
 		atpls.setPrompt(false);
 		atpls.setMaxEvaluations(maxEval);
+		atpls.setArchive(createArchive(problem));
+		atpls.setExternalArchive(createArchive(problem));
 		return atpls;
 	}
 
 
 	public static RandomSearch createRS(Problem problem) {
 		RandomSearch rs = new RandomSearch(problem, maxEval);
+		rs.setArchive(createArchive(problem));
 		return rs;
 	}
 
+	/**
+	 * @return a new GenotypeCache of genotypeCacheSize for the neighbours of problem, null if
+	 *         disabled or if its solutions are not supported
+	 */
+	public static GenotypeCache createGenotypeCache(Problem problem) {
+		if (genotypeCacheSize <= 0 || !GenotypeCache.supports(problem.createSolution()))
+			return null;
+		return new GenotypeCache(genotypeCacheSize, countCachedEvaluations);
+	}
+
+	/**
+	 * @return a new empty archive of type archiveType for problem
+	 */
+	public static Archive createArchive(Problem problem) {
+		if (archiveType.contentEquals("list"))
+			return new NonDominatedSolutionListArchive();
+		if (archiveType.contentEquals("sorted") && problem.getNumberOfObjectives() == 2)
+			return new SortedBiObjectiveArchive();
+		return new NDTreeArchive();
+	}
+
 
 	public synchronized static void saveFinalResult(ZAlgorithm alg, long duration,
 			List<? extends Solution<?>> population, String route) {
@@ -397,6 +413,11 @@ public class ExperimentRunner {
 			writer.println(alg.getName());
 			writer.println("Duration(s):" + duration);
 			writer.println("Evaluations:" + getEval(alg));
+			GenotypeCache cache = alg.getGenotypeCache();
+			if (cache != null) {
+				writer.println("GenotypeCacheLookups:" + cache.getLookups());
+				writer.println("GenotypeCacheHitRate:" + cache.getHitRate());
+			}
 			writer.flush();
 			writer.close();
 		} catch (FileNotFoundException e) {
@@ -0,0 +1,124 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
+
+/**
+ * ExploreSet
+ * Explore set of the local searches: a non-dominated archive, as NonDominatedSolutionListArchive,
+ * whose members are also kept in an array list with each member's position, so that sampling a
+ * uniformly random member and removing a given member are O(1), the removal moving the last member
+ * into the hole. Dominance is decided by a SortedBiObjectiveArchive for two objectives and an
+ * NDTreeArchive otherwise, which reports the members it drops so both views stay in sync, and
+ * answers the dominance queries of the explore set.
+ */
+@SuppressWarnings("serial")
+public class ExploreSet<S extends Solution> implements Archive<S>, DominanceQuery<S> {
+
+	private final AbstractFrontArchive<S> front;
+	private final List<S> members = new ArrayList<S>();
+	private final Map<S, Integer> position = new IdentityHashMap<S, Integer>();
+	private Consumer<S> additionListener = null;
+	private Consumer<S> removalListener = null;
+
+	public ExploreSet(int numberOfObjectives) {
+		this(numberOfObjectives == 2 ? new SortedBiObjectiveArchive<S>() : new NDTreeArchive<S>());
+	}
+
+	/**
+	 * @param front an empty archive, owned by the explore set from then on
+	 */
+	public ExploreSet(AbstractFrontArchive<S> front) {
+		this.front = front;
+		front.setRemovalListener(this::detach);
+	}
+
+	@Override
+	public boolean add(S solution) {
+		if (!front.add(solution))
+			return false;
+		append(solution);
+		return true;
+	}
+
+	@Override
+	public Relation query(S solution, Predicate<Relation> insert) {
+		Relation relation = front.query(solution, insert);
+		if (relation.accepted() && insert.test(relation))
+			append(solution);
+		return relation;
+	}
+
+	private void append(S solution) {
+		position.put(solution, members.size());
+		members.add(solution);
+		if (additionListener != null)
+			additionListener.accept(solution);
+	}
+
+	/**
+	 * @param added   called with each new member, after the members it dominates are removed
+	 * @param removed called with each member leaving the explore set
+	 */
+	public void setListeners(Consumer<S> added, Consumer<S> removed) {
+		this.additionListener = added;
+		this.removalListener = removed;
+	}
+
+	/**
+	 * Removes a member, found by identity
+	 * @return true if it was a member
+	 */
+	public boolean remove(S solution) {
+		return position.containsKey(solution) && front.remove(solution);
+	}
+
+	public void clear() {
+		for (S solution : new ArrayList<S>(members))
+			front.remove(solution);
+	}
+
+	private void detach(S solution) {
+		int index = position.remove(solution);
+		S last = members.remove(members.size() - 1);
+		if (last != solution) {
+			members.set(index, last);
+			position.put(last, index);
+		}
+		if (removalListener != null)
+			removalListener.accept(solution);
+	}
+
+	@Override
+	public S get(int index) {
+		return members.get(index);
+	}
+
+	/**
+	 * @return the members, in no particular order. The list is owned by the explore set,
+	 *         it must not be modified.
+	 */
+	@Override
+	public List<S> getSolutionList() {
+		return members;
+	}
+
+	@Override
+	public int size() {
+		return members.size();
+	}
+
+	@Override
+	public Archive<S> join(Archive<S> archive) {
+		for (S solution : archive.getSolutionList())
+			add(solution);
+		return this;
+	}
+}
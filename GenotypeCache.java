@@ -0,0 +1,182 @@
+package gecco24;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+
+/**
+ * GenotypeCache
+ * Bounded cache of evaluated genotypes for the local search neighbours, so that a neighbour
+ * generated again (SEMO resampling the same move, two archived solutions sharing a neighbour)
+ * is not evaluated again.
+ * Genotypes are keyed by a Zobrist hash: the XOR of one 64-bit key per (position, value) pair,
+ * every set bit of a bitstring or every position of a permutation. The keys are a bijective mix
+ * of the pair instead of a table of random numbers, which would take n*n entries for permutations.
+ * A move only changes the pairs it touches, so NeighbourMoves updates the parent's hash with
+ * move() in the cost of the move, and a lookup is a single map access; the stored genotype is
+ * compared on a hit so hash collisions are never served.
+ * Entries are evicted least recently used first. The hash of a solution is kept in its attributes.
+ * Supports BitStringSolution and IntPermutationSolution, and is not thread-safe.
+ */
+public class GenotypeCache {
+
+	public static final String HASH = "genotypeHash";
+
+	private final boolean countHits;
+	private final Map<Long, Entry> entries;
+	private long lookups = 0;
+	private long hits = 0;
+
+	private static class Entry {
+		final Object genotype; // BinarySet or int[]
+		final double[] objectives;
+		final double[] constraints;
+		final Map<Object, Object> attributes; // evaluation state such as the knapsack totals
+
+		Entry(Object genotype, double[] objectives, double[] constraints, Map<Object, Object> attributes) {
+			this.genotype = genotype;
+			this.objectives = objectives;
+			this.constraints = constraints;
+			this.attributes = attributes;
+		}
+	}
+
+	/**
+	 * @param capacity  maximum number of genotypes kept
+	 * @param countHits false if the neighbours served from the cache do not count as evaluations
+	 */
+	@SuppressWarnings("serial")
+	public GenotypeCache(int capacity, boolean countHits) {
+		this.countHits = countHits;
+		this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	public static boolean supports(Object solution) {
+		return solution instanceof BitStringSolution || solution instanceof IntPermutationSolution;
+	}
+
+	/**
+	 * @return hash of solution, computed in O(n) the first time
+	 */
+	public long hash(Solution<?> solution) {
+		Long hash = (Long) solution.attributes().get(HASH);
+		if (hash != null)
+			return hash;
+		long h = 0;
+		if (solution instanceof BitStringSolution) {
+			BinarySet bits = ((BitStringSolution) solution).bits();
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1))
+				h ^= key(i, 1);
+		} else {
+			int[] permutation = ((IntPermutationSolution) solution).permutation();
+			for (int i = 0; i < permutation.length; i++)
+				h ^= key(i, permutation[i]);
+		}
+		solution.attributes().put(HASH, h);
+		return h;
+	}
+
+	/**
+	 * Sets the hash of child, a copy of parent a move of MoveEvaluable has been applied to: only
+	 * positions i and j, and those in between when the first of them changed, are rehashed.
+	 * This is O(1) for flips and swaps, and O(j - i) for a reversal, as the reversal itself.
+	 */
+	public void move(Solution<?> parent, Solution<?> child, int i, int j) {
+		long h = hash(parent) ^ change(parent, child, i);
+		if (j != i)
+			h ^= change(parent, child, j);
+		if (i + 1 < j && change(parent, child, i + 1) != 0)
+			for (int k = i + 1; k < j; k++)
+				h ^= change(parent, child, k);
+		child.attributes().put(HASH, h);
+	}
+
+	/**
+	 * @return XOR of the keys of position k in parent and in child, 0 if unchanged
+	 */
+	private static long change(Solution<?> parent, Solution<?> child, int k) {
+		if (parent instanceof BitStringSolution) {
+			boolean before = ((BitStringSolution) parent).bits().get(k);
+			return before == ((BitStringSolution) child).bits().get(k) ? 0 : key(k, 1);
+		}
+		int before = ((IntPermutationSolution) parent).permutation()[k];
+		int after = ((IntPermutationSolution) child).permutation()[k];
+		return before == after ? 0 : key(k, before) ^ key(k, after);
+	}
+
+	/**
+	 * Copies the objectives, constraints and attributes of the cached genotype of solution, if any,
+	 * into it
+	 * @return true on a hit
+	 */
+	public boolean lookup(Solution<?> solution) {
+		lookups++;
+		Entry entry = entries.get(hash(solution));
+		if (entry == null || !sameGenotype(entry.genotype, solution))
+			return false;
+		hits++;
+		System.arraycopy(entry.objectives, 0, solution.objectives(), 0, entry.objectives.length);
+		System.arraycopy(entry.constraints, 0, solution.constraints(), 0, entry.constraints.length);
+		solution.attributes().putAll(entry.attributes);
+		return true;
+	}
+
+	/**
+	 * @return true if the neighbours served from the cache count as evaluations
+	 */
+	public boolean countsHits() {
+		return countHits;
+	}
+
+	/**
+	 * Caches the genotype of an evaluated solution. Its attributes are copied shallowly, as by
+	 * Solution.copy(), so the problems must replace their attribute values instead of updating them.
+	 */
+	public void store(Solution<?> solution) {
+		Object genotype;
+		if (solution instanceof BitStringSolution)
+			genotype = ((BitStringSolution) solution).bits().clone();
+		else
+			genotype = ((IntPermutationSolution) solution).permutation().clone();
+		entries.put(hash(solution),
+				new Entry(genotype, solution.objectives().clone(), solution.constraints().clone(),
+						new HashMap<Object, Object>(solution.attributes())));
+	}
+
+	private static boolean sameGenotype(Object genotype, Solution<?> solution) {
+		if (solution instanceof BitStringSolution)
+			return genotype.equals(((BitStringSolution) solution).bits());
+		return Arrays.equals((int[]) genotype, ((IntPermutationSolution) solution).permutation());
+	}
+
+	/**
+	 * splitmix64 finalizer of (position, value), a bijection so distinct pairs get distinct keys
+	 */
+	private static long key(int position, int value) {
+		long z = ((long) position << 32 | value) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	public long getLookups() {
+		return lookups;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public double getHitRate() {
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+}
@@ -0,0 +1,90 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.util.legacy.qualityindicator.impl.hypervolume.impl.WFGHypervolume;
+
+/**
+ * HypervolumeBenchmark
+ * SMSEMOA with the hypervolume contributions of WFGHypervolume against BiObjectiveHypervolume
+ * on the eight instances of ExperimentRunner, population 100: evaluations per second of a whole
+ * run and speed-up. Beforehand, both are given the same random fronts of 2 to 101 points and
+ * must remove the same point, the one of smallest contribution.
+ *
+ * java gecco24.HypervolumeBenchmark [problemInfoDirectory] [evaluations]
+ * Without a data directory ("-"), random instances of the same sizes are generated.
+ */
+public class HypervolumeBenchmark {
+
+	private static final int POPULATION = 100;
+
+	public static void main(String[] args) {
+		String dir = args.length > 0 && !args[0].equals("-") ? args[0] : null;
+		int evaluations = args.length > 1 ? Integer.valueOf(args[1]) : 20000;
+
+		check(1000);
+
+		List<Problem> problems = dir == null
+				? List.of(new Knapsack01(100), new Knapsack01(1000), new MONKLand(50, 10), new MONKLand(200, 10),
+						new MOTSP(50), new MOTSP(500), new MOQAP(50), new MOQAP(200))
+				: List.of(new Knapsack01(100).load(dir + "KP-100.txt"), new Knapsack01(1000).load(dir + "KP-1000.txt"),
+						new MONKLand(50, 10).load(dir + "NK-50-10.txt"),
+						new MONKLand(200, 10).load(dir + "NK-200-10.txt"), new MOTSP(50).load(dir + "TSP-50.txt"),
+						new MOTSP(500).load(dir + "TSP-500.txt"), new MOQAP(50).load(dir + "QAP-50.txt"),
+						new MOQAP(200).load(dir + "QAP-200.txt"));
+
+		System.out.println("problem\tWFG evals/s\tbi-objective evals/s\tspeed-up");
+		for (Problem problem : problems) {
+			rate(problem, false, evaluations / 10); // warm-up
+			rate(problem, true, evaluations / 10);
+			double wfg = rate(problem, false, evaluations);
+			double biObjective = rate(problem, true, evaluations);
+			System.out.printf("%s\t%.0f\t%.0f\t%.1f%n", problem.getName(), wfg, biObjective, biObjective / wfg);
+		}
+	}
+
+	/**
+	 * @return evaluations per second of an SMSEMOA run
+	 */
+	private static double rate(Problem problem, boolean biObjective, int evaluations) {
+		SMSEMOA smsemoa = ExperimentRunner.createSMSEMOA(problem, evaluations / POPULATION, POPULATION);
+		smsemoa.setBiObjectiveContributions(biObjective);
+		long t0 = System.nanoTime();
+		smsemoa.run();
+		return evaluations * 1e9 / (System.nanoTime() - t0);
+	}
+
+	/**
+	 * Compares the point both implementations remove from random fronts
+	 */
+	@SuppressWarnings("unchecked")
+	private static void check(int fronts) {
+		Random random = new Random(1);
+		WFGHypervolume<IntPermutationSolution> wfg = new WFGHypervolume<IntPermutationSolution>();
+		BiObjectiveHypervolume<IntPermutationSolution> biObjective = new BiObjectiveHypervolume<IntPermutationSolution>(
+				100.0);
+		int same = 0;
+		for (int k = 0; k < fronts; k++) {
+			SortedBiObjectiveArchive<IntPermutationSolution> front = new SortedBiObjectiveArchive<IntPermutationSolution>();
+			int size = 2 + random.nextInt(POPULATION);
+			while (front.size() < size) {
+				// an empty permutation only carries the objectives, on a circle so most are non-dominated
+				IntPermutationSolution s = new IntPermutationSolution(0, 2, 0);
+				double angle = random.nextDouble() * Math.PI / 2;
+				s.objectives()[0] = 1000 * Math.cos(angle);
+				s.objectives()[1] = 1000 * Math.sin(angle);
+				front.add(s);
+			}
+			List<IntPermutationSolution> a = new ArrayList<IntPermutationSolution>(front.getSolutionList());
+			List<IntPermutationSolution> b = new ArrayList<IntPermutationSolution>(front.getSolutionList());
+			a = wfg.computeHypervolumeContribution(a, a);
+			b = biObjective.computeHypervolumeContribution(b);
+			if (a.get(a.size() - 1) == b.get(b.size() - 1))
+				same++;
+		}
+		System.out.println("Same point removed from " + same + " of " + fronts + " random fronts");
+	}
+}
@@ -0,0 +1,150 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.uma.jmetal.solution.Solution;
+
+/**
+ * IncrementalRanking
+ * Non-dominated fronts of a population kept up to date as single solutions are added and
+ * removed, for the steady-state SMSEMOA, instead of a full non-dominated sort per step.
+ * A new solution goes into the first front with no member dominating it, found by binary
+ * search over the fronts as in ENS-BS, since a solution dominated in one front is dominated in
+ * all the previous ones. The members it dominates move down one front, pushing down the members
+ * they dominate there, and so on. Removing a solution lifts back the members of the next front
+ * it alone dominated, and so on. Only the fronts below the change are visited.
+ * As MergeNonDominatedSortRanking, dominance is on the objectives only, and solutions with equal
+ * objectives share a front.
+ */
+public class IncrementalRanking<S extends Solution<?>> {
+
+	private final List<List<S>> fronts = new ArrayList<List<S>>();
+	private final Map<S, Integer> rank = new IdentityHashMap<S, Integer>();
+
+	public void clear() {
+		fronts.clear();
+		rank.clear();
+	}
+
+	public void add(S solution) {
+		// first front without a member dominating it
+		int low = 0;
+		int high = fronts.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (dominated(solution, fronts.get(middle)))
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		List<S> moving = new ArrayList<S>(1);
+		moving.add(solution);
+		for (int k = low; !moving.isEmpty(); k++) {
+			if (k == fronts.size())
+				fronts.add(new ArrayList<S>());
+			List<S> front = fronts.get(k);
+			List<S> pushed = new ArrayList<S>();
+			int kept = 0;
+			for (S member : front) {
+				if (dominated(member, moving))
+					pushed.add(member);
+				else
+					front.set(kept++, member);
+			}
+			front.subList(kept, front.size()).clear();
+			for (S s : moving) {
+				front.add(s);
+				rank.put(s, k);
+			}
+			moving = pushed;
+		}
+	}
+
+	/**
+	 * Removes a member, found by identity
+	 * @return true if it was a member
+	 */
+	public boolean remove(S solution) {
+		Integer k = rank.remove(solution);
+		if (k == null)
+			return false;
+		List<S> front = fronts.get(k);
+		for (int i = 0; i < front.size(); i++) {
+			if (front.get(i) == solution) {
+				front.remove(i);
+				break;
+			}
+		}
+
+		// members of the next front dominated by a solution that left front k and by none still there
+		List<S> left = new ArrayList<S>(1);
+		left.add(solution);
+		for (k = k + 1; k < fronts.size() && !left.isEmpty(); k++) {
+			List<S> upper = fronts.get(k - 1);
+			List<S> lower = fronts.get(k);
+			List<S> lifted = new ArrayList<S>();
+			int kept = 0;
+			for (S member : lower) {
+				if (dominated(member, left) && !dominated(member, upper))
+					lifted.add(member);
+				else
+					lower.set(kept++, member);
+			}
+			lower.subList(kept, lower.size()).clear();
+			for (S s : lifted) {
+				upper.add(s);
+				rank.put(s, k - 1);
+			}
+			left = lifted;
+		}
+		// a front only empties if all the following ones did
+		while (!fronts.isEmpty() && fronts.get(fronts.size() - 1).isEmpty())
+			fronts.remove(fronts.size() - 1);
+		return true;
+	}
+
+	/**
+	 * @return the members of front i, owned by the ranking and not to be modified
+	 */
+	public List<S> getSubFront(int i) {
+		return fronts.get(i);
+	}
+
+	public int getNumberOfSubFronts() {
+		return fronts.size();
+	}
+
+	public int size() {
+		return rank.size();
+	}
+
+	/**
+	 * @return true if a member of solutions dominates solution
+	 */
+	private static <S extends Solution<?>> boolean dominated(S solution, List<S> solutions) {
+		for (S member : solutions)
+			if (dominates(member, solution))
+				return true;
+		return false;
+	}
+
+	/**
+	 * @return true if a is no worse than b in every objective and better in one, on minimisation
+	 */
+	private static boolean dominates(Solution<?> a, Solution<?> b) {
+		double[] fa = a.objectives();
+		double[] fb = b.objectives();
+		boolean better = false;
+		for (int m = 0; m < fa.length; m++) {
+			if (fa[m] > fb[m])
+				return false;
+			if (fa[m] < fb[m])
+				better = true;
+		}
+		return better;
+	}
+}
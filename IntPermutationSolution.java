@@ -0,0 +1,180 @@
+package gecco24;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.uma.jmetal.solution.permutationsolution.PermutationSolution;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+/**
+ * IntPermutationSolution
+ * A PermutationSolution<Integer> backed by a primitive int[].
+ * variables() is a write-through view, so jMetal operators, SolutionListOutput and
+ * Collections.reverse/swap keep working, while MOTSP, MOQAP and the permutation
+ * operators read and write permutation() directly without unboxing.
+ */
+@SuppressWarnings("serial")
+public class IntPermutationSolution implements PermutationSolution<Integer> {
+
+	private final int[] permutation;
+	private final double[] objectives;
+	private final double[] constraints;
+	private final Map<Object, Object> attributes;
+	private final List<Integer> variables;
+
+	/**
+	 * Constructor, a uniformly random permutation of 0..permutationLength-1
+	 */
+	public IntPermutationSolution(int permutationLength, int numberOfObjectives, int numberOfConstraints) {
+		this(new int[permutationLength], new double[numberOfObjectives], new double[numberOfConstraints],
+				new HashMap<Object, Object>());
+		JMetalRandom random = JMetalRandom.getInstance();
+		for (int i = 0; i < permutationLength; i++)
+			permutation[i] = i;
+		for (int i = permutationLength - 1; i > 0; i--)
+			swap(i, random.nextInt(0, i));
+	}
+
+	/**
+	 * Copy constructor
+	 */
+	public IntPermutationSolution(IntPermutationSolution solution) {
+		this(solution.permutation.clone(), solution.objectives.clone(), solution.constraints.clone(),
+				new HashMap<Object, Object>(solution.attributes));
+	}
+
+	private IntPermutationSolution(int[] permutation, double[] objectives, double[] constraints,
+			Map<Object, Object> attributes) {
+		this.permutation = permutation;
+		this.objectives = objectives;
+		this.constraints = constraints;
+		this.attributes = attributes;
+		this.variables = new View();
+	}
+
+	/**
+	 * @return the backing array, changes write through to the solution
+	 */
+	public int[] permutation() {
+		return permutation;
+	}
+
+	public void swap(int i, int j) {
+		int temp = permutation[i];
+		permutation[i] = permutation[j];
+		permutation[j] = temp;
+	}
+
+	/**
+	 * Reverses positions from..to, both inclusive
+	 */
+	public void reverse(int from, int to) {
+		while (from < to) {
+			swap(from, to);
+			from++;
+			to--;
+		}
+	}
+
+	@Override
+	public List<Integer> variables() {
+		return variables;
+	}
+
+	@Override
+	public double[] objectives() {
+		return objectives;
+	}
+
+	@Override
+	public double[] constraints() {
+		return constraints;
+	}
+
+	@Override
+	public Map<Object, Object> attributes() {
+		return attributes;
+	}
+
+	@Override
+	public int getLength() {
+		return permutation.length;
+	}
+
+	@Override
+	public IntPermutationSolution copy() {
+		return new IntPermutationSolution(this);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof IntPermutationSolution))
+			return false;
+		IntPermutationSolution that = (IntPermutationSolution) o;
+		return Arrays.equals(permutation, that.permutation) && Arrays.equals(objectives, that.objectives)
+				&& Arrays.equals(constraints, that.constraints);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(permutation) + Arrays.hashCode(objectives);
+	}
+
+	@Override
+	public String toString() {
+		return "Variables: " + variables + " Objectives: " + Arrays.toString(objectives) + "\tConstraints: "
+				+ Arrays.toString(constraints) + "\tInfo: " + attributes;
+	}
+
+	/**
+	 * @return the int[] of solution, the backing array itself for an IntPermutationSolution
+	 *         and an unboxed copy for any other PermutationSolution
+	 */
+	public static int[] intArray(PermutationSolution<Integer> solution) {
+		if (solution instanceof IntPermutationSolution)
+			return ((IntPermutationSolution) solution).permutation;
+		List<Integer> variables = solution.variables();
+		int[] res = new int[variables.size()];
+		for (int i = 0; i < res.length; i++)
+			res[i] = variables.get(i);
+		return res;
+	}
+
+	/**
+	 * Sets the variables of solution to values
+	 */
+	public static void assign(PermutationSolution<Integer> solution, int[] values) {
+		if (solution instanceof IntPermutationSolution) {
+			System.arraycopy(values, 0, ((IntPermutationSolution) solution).permutation, 0, values.length);
+		} else {
+			for (int i = 0; i < values.length; i++)
+				solution.variables().set(i, values[i]);
+		}
+	}
+
+	private class View extends AbstractList<Integer> implements RandomAccess, Serializable {
+		@Override
+		public Integer get(int index) {
+			return permutation[index];
+		}
+
+		@Override
+		public Integer set(int index, Integer element) {
+			int old = permutation[index];
+			permutation[index] = element;
+			return old;
+		}
+
+		@Override
+		public int size() {
+			return permutation.length;
+		}
+	}
+}
@@ -70,6 +70,10 @@ public class InversionMutation<T> implements MutationOperator<PermutationSolutio
 	    			pos1 = pos2;
 	    			pos2 = temp;
 	    		}
+	    		if (solution instanceof IntPermutationSolution) {
+	    			((IntPermutationSolution) solution).reverse(pos1, pos2);
+	    			return;
+	    		}
 	    		while (pos1<pos2) {
 	    			T temp = solution.variables().get(pos1);
 	    			solution.variables().set(pos1, solution.variables().get(pos2));
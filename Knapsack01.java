@@ -7,12 +7,14 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.LineIterator;
 import org.uma.jmetal.problem.binaryproblem.impl.AbstractBinaryProblem;
 import org.uma.jmetal.solution.binarysolution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
 import org.uma.jmetal.util.pseudorandom.JMetalRandom;
 
 /**
@@ -24,7 +26,7 @@ import org.uma.jmetal.util.pseudorandom.JMetalRandom;
  * to that single-objective optima.
  * This goes under the minisation framework of jMetal.
  */
-public class Knapsack01 extends AbstractBinaryProblem {
+public class Knapsack01 extends AbstractBinaryProblem implements MoveEvaluable<BinarySolution> {
 	
 	/**
 	 * 
@@ -38,6 +40,8 @@ public class Knapsack01 extends AbstractBinaryProblem {
 	public double[] value2;
 	private List<Integer> bitsPerVariable;
 	double[][] refFront = null;
+	// attribute holding the cached {weight, value1, value2} totals of an evaluated solution
+	public static final String TOTALS = "knapsackTotals";
 	
 	public Knapsack01() {
 		initProblem(50);
@@ -59,6 +63,8 @@ public class Knapsack01 extends AbstractBinaryProblem {
 	}
 	
 	public Knapsack01 load(String path) {
+		if (path.endsWith(BinaryInstance.EXTENSION))
+			return loadBinary(path);
 		FileInputStream inputStream;
 		try {
 			inputStream = new FileInputStream(path);
@@ -83,6 +89,35 @@ public class Knapsack01 extends AbstractBinaryProblem {
 	    return this;
 	}
 	
+	/**
+	 * Loads an instance written by saveBinary, see BinaryInstance.
+	 * The optima are stored with the instance, so the dynamic programming is not repeated.
+	 * payload: weightLimit, opt1[2], opt2[2], weight[n], value1[n], value2[n]
+	 */
+	public Knapsack01 loadBinary(String path) {
+		BinaryInstance instance = BinaryInstance.map(path, BinaryInstance.KP);
+		this.n = instance.n;
+		setNumberOfVariables(n);
+		setName("KP-"+n);
+		bitsPerVariable = new ArrayList<>(1);
+		bitsPerVariable.add(n);
+		double[] limits = instance.getDoubles(5);
+		weightLimit = limits[0];
+		opt1 = Arrays.copyOfRange(limits, 1, 3);
+		opt2 = Arrays.copyOfRange(limits, 3, 5);
+		weight = instance.getDoubles(n);
+		value1 = instance.getDoubles(n);
+		value2 = instance.getDoubles(n);
+		return this;
+	}
+	
+	public void saveBinary(String path) {
+		BinaryInstance.create(BinaryInstance.KP, n, 2, 0, 0, (5 + 3L*n) * Double.BYTES)
+				.putDoubles(weightLimit, opt1[0], opt1[1], opt2[0], opt2[1])
+				.putDoubles(weight).putDoubles(value1).putDoubles(value2)
+				.write(path);
+	}
+	
 	public Knapsack01 loadXiaofeng(String path) {
 		int m = getNumberOfObjectives();
 		int n = getNumberOfVariables();
@@ -171,8 +206,9 @@ public class Knapsack01 extends AbstractBinaryProblem {
 		setNumberOfObjectives(2);
 		setNumberOfConstraints(1);
 	    setName("KP-"+n);
-	    bitsPerVariable = new ArrayList<>(n);
-	    for (int i=0; i<n; i++) bitsPerVariable.add(1);
+	    // one packed variable of n bits, see BitStringSolution
+	    bitsPerVariable = new ArrayList<>(1);
+	    bitsPerVariable.add(n);
 	    
 	    JMetalRandom random = JMetalRandom.getInstance();
 	    weight = new double[n];
@@ -220,19 +256,30 @@ public class Knapsack01 extends AbstractBinaryProblem {
 	
 
 	@Override
-	public synchronized BinarySolution evaluate(BinarySolution solution) {
+	public BinarySolution evaluate(BinarySolution solution) {
+		double[] totals = totals(solution);
+		return setObjectives(solution, totals[0], totals[1], totals[2]);
+	}
+
+	/**
+	 * @return {weight, value1, value2} totals of the selected items, without modifying solution
+	 */
+	private double[] totals(BinarySolution solution) {
 		double totalWeight = 0;
 		double totalValue1 = 0;
 		double totalValue2 = 0;
-		for (int i=0; i<n; i++) {
-			boolean bit = solution.variables().get(i).get(0);
-			if (bit) {
-				totalWeight += weight[i];
-				totalValue1 += value1[i];
-				totalValue2 += value2[i];
-			}
+		BinarySet bits = BitStringSolution.bits(solution);
+		for (int i = bits.nextSetBit(0); i >= 0 && i < n; i = bits.nextSetBit(i + 1)) {
+			totalWeight += weight[i];
+			totalValue1 += value1[i];
+			totalValue2 += value2[i];
 		}
-		
+		return doubles(totalWeight, totalValue1, totalValue2);
+	}
+	
+	private BinarySolution setObjectives(BinarySolution solution, double totalWeight, double totalValue1, double totalValue2) {
+		// always a fresh array, copies of a solution share its attribute values
+		solution.attributes().put(TOTALS, doubles(totalWeight, totalValue1, totalValue2));
 		if (totalWeight<=weightLimit) {
 			solution.objectives()[0] = opt1[0] - totalValue1;
 			solution.objectives()[1] = opt2[1] - totalValue2;
@@ -246,6 +293,54 @@ public class Knapsack01 extends AbstractBinaryProblem {
 		}
 		return solution;
 	}
+	
+	/**
+	 * Flips bits i and j
+	 */
+	@Override
+	public void applyMove(BinarySolution solution, int i, int j) {
+		BitStringSolution.flip(solution, i);
+		BitStringSolution.flip(solution, j);
+	}
+
+	/**
+	 * Evaluates a neighbour with bits i and j flipped in O(1), from the cached totals of the parent.
+	 * Objectives and constraint violation, including the infeasible branch, match evaluate().
+	 * The parent is only read, as it may be shared by threads evaluating its moves; without cached
+	 * totals they are recomputed in O(n) aside.
+	 */
+	@Override
+	public void evaluateMove(BinarySolution parent, BinarySolution neighbour, int i, int j) {
+		double[] totals = (double[]) parent.attributes().get(TOTALS);
+		if (totals == null)
+			totals = totals(parent);
+		double totalWeight = totals[0];
+		double totalValue1 = totals[1];
+		double totalValue2 = totals[2];
+		BinarySet bits = BitStringSolution.bits(parent);
+		double sign = bits.get(i) ? -1 : 1;
+		totalWeight += sign * weight[i];
+		totalValue1 += sign * value1[i];
+		totalValue2 += sign * value2[i];
+		sign = bits.get(j) ? -1 : 1;
+		totalWeight += sign * weight[j];
+		totalValue1 += sign * value1[j];
+		totalValue2 += sign * value2[j];
+		setObjectives(neighbour, totalWeight, totalValue1, totalValue2);
+	}
+
+	@Override
+	public void undoMove(BinarySolution parent, BinarySolution neighbour, int i, int j) {
+		applyMove(neighbour, i, j);
+		System.arraycopy(parent.objectives(), 0, neighbour.objectives(), 0, parent.objectives().length);
+		System.arraycopy(parent.constraints(), 0, neighbour.constraints(), 0, parent.constraints().length);
+		neighbour.attributes().put(TOTALS, parent.attributes().get(TOTALS));
+	}
+
+	@Override
+	public BinarySolution createSolution() {
+		return new BitStringSolution(n, getNumberOfObjectives(), getNumberOfConstraints());
+	}
 
 	@Override
 	public List<Integer> getListOfBitsPerVariable() {
@@ -1,7 +1,6 @@
 package gecco24;
 
 import org.uma.jmetal.algorithm.multiobjective.moead.AbstractMOEAD;
-import org.uma.jmetal.algorithm.multiobjective.moead.util.MOEADUtils;
 import org.uma.jmetal.operator.crossover.CrossoverOperator;
 import org.uma.jmetal.operator.crossover.impl.DifferentialEvolutionCrossover;
 import org.uma.jmetal.operator.mutation.MutationOperator;
@@ -9,6 +8,7 @@ import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.ConstraintHandling;
 import org.uma.jmetal.util.SolutionListUtils;
+import org.uma.jmetal.util.archive.Archive;
 import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 import org.uma.jmetal.util.comparator.ConstraintViolationComparator;
 import org.uma.jmetal.util.comparator.EqualSolutionsComparator;
@@ -16,6 +16,7 @@ import org.uma.jmetal.util.errorchecking.JMetalException;
 import org.uma.jmetal.util.pseudorandom.JMetalRandom;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -34,12 +35,25 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 	}
 
 	protected DifferentialEvolutionCrossover differentialEvolutionCrossover;
-	private NonDominatedSolutionListArchive<S> archive;
+	private Archive<S> archive;
 	private int nonUpdateEvaluationSum = 0;
 	private OtherFunctionType otherFunctionType = null;
 
 	private int t;
 	private int stagnantStop = Integer.MAX_VALUE;
+
+	private int parallelism = 1;
+	private int batchSize = 1;
+	private ParallelSolutionListEvaluator<S> evaluator = null; // while parallelism > 1
+	private final List<S> batch = new ArrayList<>();
+	private NeighborType[] batchNeighborTypes = new NeighborType[0];
+
+	// buffers reused across generations
+	private int[] permutation = new int[0];
+	private int[] updateOrder = new int[0];
+	private boolean[] free = new boolean[0];
+	private final List<S> parents = new ArrayList<>(3);
+	private final EqualSolutionsComparator<S> equalSolutions = new EqualSolutionsComparator<S>();
 	
 	private String name = "MOEAD";
 
@@ -73,23 +87,52 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 		idealPoint.update(population);
 		t = 0;
 		evaluations = populationSize;
-		if (archive != null) archive.addAll(population);
+		if (archive != null) population.forEach(archive::add);
 	}
 
 	public void generationalRun() {
 		t++;
-		int[] permutation = new int[populationSize];
-		MOEADUtils.randomPermutation(permutation, populationSize);
+		if (permutation.length < populationSize) {
+			permutation = new int[populationSize];
+			updateOrder = new int[populationSize];
+			free = new boolean[populationSize];
+		}
+		randomPermutation(permutation, populationSize);
+
+		if (batchNeighborTypes.length < batchSize)
+			batchNeighborTypes = new NeighborType[batchSize];
+		for (int from = 0; from < populationSize; from += batchSize) {
+			int to = Math.min(from + batchSize, populationSize);
+			breed(permutation, from, to);
+			evaluateBatch();
+			for (int i = from; i < to; i++) {
+				S child = batch.get(i - from);
+				evaluations++;
+
+				boolean updated = archive.add(child);
+				if (!updated) nonUpdateEvaluationSum++;
+				else nonUpdateEvaluationSum = 0;
+
+				//if (ConstraintHandling.overallConstraintViolationDegree(child)>=0) 
+					idealPoint.update(child.objectives());
+				
+				updateNeighborhood(child, permutation[i], batchNeighborTypes[i - from]);
+			}
+		}
+	}
 
-		for (int i = 0; i < populationSize; i++) {
+	/**
+	 * Fills batch with the offspring of the subproblems permutation[from..to), not evaluated yet,
+	 * all bred from the population as it stands before their updates
+	 */
+	private void breed(int[] permutation, int from, int to) {
+		batch.clear();
+		for (int i = from; i < to; i++) {
 			int subProblemId = permutation[i];
 
 			NeighborType neighborType = chooseNeighborType();
-			List<S> parents = parentSelection(subProblemId, neighborType);
-
-			while (parents.size() > crossoverOperator.getNumberOfRequiredParents()) {
-				parents.remove(parents.size()-1);
-			}
+			batchNeighborTypes[i - from] = neighborType;
+			selectParents(subProblemId, neighborType);
 			//int p1 = sample(neighborhood[subProblemId]);
 			//int p2 = sample(neighborhood[subProblemId]);
 			//while (p2==p1) p2 = sample(neighborhood[subProblemId]);
@@ -107,17 +150,57 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 			S child = children.get(0);
 			
 			mutationOperator.execute(child);
-			problem.evaluate(child);
-			evaluations++;
-			
-			boolean updated = archive.add(child);
-			if (!updated) nonUpdateEvaluationSum++;
-			else nonUpdateEvaluationSum = 0;
+			batch.add(child);
+		}
+	}
 
-			//if (ConstraintHandling.overallConstraintViolationDegree(child)>=0) 
-				idealPoint.update(child.objectives());
-			
-			updateNeighborhood(child, subProblemId, neighborType);
+	/**
+	 * Fills parents as parentSelection(), trimmed to the parents of the crossover, with the same
+	 * random draws: two distinct mates from the neighbourhood or the whole population, then the
+	 * solution of the subproblem itself
+	 */
+	private void selectParents(int subProblemId, NeighborType neighborType) {
+		int required = crossoverOperator.getNumberOfRequiredParents();
+		parents.clear();
+		int first = -1;
+		while (parents.size() < 2) {
+			int k;
+			if (neighborType == NeighborType.NEIGHBOR)
+				k = neighborhood[subProblemId][randomGenerator.nextInt(0, neighborhood[subProblemId].length - 1)];
+			else
+				k = randomGenerator.nextInt(0, populationSize - 1);
+			if (parents.isEmpty() || k != first) {
+				first = parents.isEmpty() ? k : first;
+				parents.add(population.get(k));
+			}
+		}
+		parents.add(population.get(subProblemId));
+		while (parents.size() > required)
+			parents.remove(parents.size() - 1);
+	}
+
+	/**
+	 * MOEADUtils.randomPermutation() on the reused free buffer, with the same random draws
+	 */
+	private void randomPermutation(int[] perm, int size) {
+		Arrays.fill(free, 0, size, true);
+		for (int num = 0; num < size; num++) {
+			int start = randomGenerator.nextInt(0, size - 1);
+			while (!free[start])
+				start = start == size - 1 ? 0 : start + 1;
+			perm[num] = start;
+			free[start] = false;
+		}
+	}
+
+	private void evaluateBatch() {
+		if (parallelism > 1 && batch.size() > 1) {
+			if (evaluator == null)
+				evaluator = new ParallelSolutionListEvaluator<S>(parallelism);
+			evaluator.evaluate(batch, problem);
+		} else {
+			for (S child : batch)
+				problem.evaluate(child);
 		}
 	}
 	
@@ -132,12 +215,22 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 	@Override
 	public void run() {
 		init();
-		do {
-			generationalRun();
-		} while (evaluations < maxEvaluations && nonUpdateEvaluationSum < stagnantStop);
-
+		try {
+			do {
+				generationalRun();
+			} while (evaluations < maxEvaluations && nonUpdateEvaluationSum < stagnantStop);
+		} finally {
+			if (evaluator != null)
+				evaluator.shutdown();
+			evaluator = null;
+		}
 	}
 
+	/**
+	 * Replaces up to maximumNumberOfReplacedSolutions solutions of the neighbourhood or the population
+	 * that the child improves. The replaced slots share the child instead of copies of it: the
+	 * operators copy their parents and no solution is modified once evaluated.
+	 */
 	@Override
 	protected void updateNeighborhood(S child, int subProblemId, NeighborType neighborType)
 			throws JMetalException {
@@ -149,9 +242,9 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 		} else {
 			size = population.size();
 		}
-		int[] perm = new int[size];
+		int[] perm = updateOrder;
 
-		MOEADUtils.randomPermutation(perm, size);
+		randomPermutation(perm, size);
 
 		for (int i = 0; i < size; i++) {
 			int k;
@@ -166,7 +259,7 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 			S neighbor = population.get(k);
 			double fneighbor, fchild;
 			
-			if (new EqualSolutionsComparator<S>().compare(child, neighbor)==0) {
+			if (equalSolutions.compare(child, neighbor)==0) {
 				continue;
 			}
 			
@@ -175,7 +268,7 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 			fneighbor = fitnessFunction(neighbor, lambda[k]);
 			fchild = fitnessFunction(child, lambda[k]);
 			if (fchild < fneighbor) {
-				population.set(k, (S) child.copy());
+				population.set(k, child);
 				time++;
 			}
 			/*} else if (vioCompare == 1) {
@@ -304,6 +397,10 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 		return "Multi-Objective Evolutionary Algorithm based on Decomposition";
 	}
 
+	public void setArchive(Archive<S> archive) {
+		this.archive = archive;
+	}
+
 	public List<S> getArchive() {
 		return archive.getSolutionList();
 	}
@@ -312,6 +409,32 @@ public class MOEAD<S extends Solution<?>> extends AbstractMOEAD<S> implements ZA
 		return t;
 	}
 	
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * @param parallelism number of threads evaluating each batch of offspring, 1 to evaluate them in
+	 *                    turn. The results do not depend on it.
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @param batchSize number of subproblems whose offspring are bred and evaluated together before
+	 *                  their neighbourhood updates, applied in the order of the subproblem
+	 *                  permutation. 1 is the sequential MOEA/D, where each offspring is bred from
+	 *                  the updates of the previous one.
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
 	public int getStagnantStop() {
 		return stagnantStop;
 	}
@@ -0,0 +1,64 @@
+package gecco24;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.util.errorchecking.JMetalException;
+
+/**
+ * MOEADBenchmark
+ * Sequential MOEAD runs of ExperimentRunner on the eight instances, population 100: evaluations
+ * per second and bytes allocated per evaluation by the run's thread, from the HotSpot thread
+ * allocation counter. The bytes include the copies of the parents made by the crossover, the
+ * evaluation and the archive, besides the generation loop itself.
+ *
+ * java gecco24.MOEADBenchmark [problemInfoDirectory] [evaluations]
+ * Without a data directory ("-"), random instances of the same sizes are generated.
+ */
+public class MOEADBenchmark {
+
+	private static final int POPULATION = 100;
+
+	public static void main(String[] args) {
+		String dir = args.length > 0 && !args[0].equals("-") ? args[0] : null;
+		int evaluations = args.length > 1 ? Integer.valueOf(args[1]) : 100000;
+
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+			throw new JMetalException("MOEADBenchmark: no thread allocation counter in this JVM");
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		List<Problem> problems = dir == null
+				? List.of(new Knapsack01(100), new Knapsack01(1000), new MONKLand(50, 10), new MONKLand(200, 10),
+						new MOTSP(50), new MOTSP(500), new MOQAP(50), new MOQAP(200))
+				: List.of(new Knapsack01(100).load(dir + "KP-100.txt"), new Knapsack01(1000).load(dir + "KP-1000.txt"),
+						new MONKLand(50, 10).load(dir + "NK-50-10.txt"),
+						new MONKLand(200, 10).load(dir + "NK-200-10.txt"), new MOTSP(50).load(dir + "TSP-50.txt"),
+						new MOTSP(500).load(dir + "TSP-500.txt"), new MOQAP(50).load(dir + "QAP-50.txt"),
+						new MOQAP(200).load(dir + "QAP-200.txt"));
+
+		System.out.println("problem\tevals/s\tbytes/eval");
+		for (Problem problem : problems) {
+			createMOEAD(problem, evaluations / 10).run(); // warm-up
+			MOEAD moead = createMOEAD(problem, evaluations);
+			long bytes = threads.getCurrentThreadAllocatedBytes();
+			long t0 = System.nanoTime();
+			moead.run();
+			long time = System.nanoTime() - t0;
+			bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+			System.out.printf("%s\t%.0f\t%.0f%n", problem.getName(), evaluations * 1e9 / time,
+					(double) bytes / evaluations);
+		}
+	}
+
+	/**
+	 * @return the MOEAD of ExperimentRunner, evaluating on the calling thread
+	 */
+	private static MOEAD createMOEAD(Problem problem, int evaluations) {
+		MOEAD moead = ExperimentRunner.createMOEAD(problem, evaluations / POPULATION, POPULATION);
+		moead.setParallelism(1);
+		return moead;
+	}
+}
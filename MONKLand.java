@@ -13,10 +13,11 @@ import java.util.Random;
 
 import org.uma.jmetal.problem.binaryproblem.impl.AbstractBinaryProblem;
 import org.uma.jmetal.solution.binarysolution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.LineIterator;
 
-public class MONKLand extends AbstractBinaryProblem {
+public class MONKLand extends AbstractBinaryProblem implements MoveEvaluable<BinarySolution> {
 	
 	/**
 	 * This version of NKLandscape is to adapt Xiaofeng's MATLAB version, for GECCO 2024 Li et al
@@ -28,10 +29,20 @@ public class MONKLand extends AbstractBinaryProblem {
 	int exponent = 1;
 	private ArrayList<Integer> bitsPerVariable;
 	
-	double[][][] mat;
+	// contributions, objectives interleaved: mat[(i*matSize + pattern)*M + m] is the contribution of locus i to objective m
+	double[] mat;
 	
 	int[][][] links;
+	// loci[m][i]: sorted loci whose bits form the pattern of locus i
+	int[][][] loci;
+	// true when every objective uses the same links, so one pattern index serves all objectives
+	boolean sharedLinks;
+	// inverseLinks[m][b]: loci whose pattern contains bit b, inverseMasks[m][b]: position of b in that pattern
+	int[][][] inverseLinks;
+	int[][][] inverseMasks;
 	Random random = new Random();
+	// thread-confined scratch space, so that evaluate() is reentrant on a shared instance
+	private final ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[0]);
 	
 	
 	
@@ -50,8 +61,9 @@ public class MONKLand extends AbstractBinaryProblem {
 		setNumberOfVariables(n);
 		setNumberOfObjectives(2);
 	    setName("NK-"+N+"-"+K);
-	    bitsPerVariable = new ArrayList<Integer>(n);
-	    for (int i=0; i<n; i++) bitsPerVariable.add(1);
+	    // one packed variable of n bits, see BitStringSolution
+	    bitsPerVariable = new ArrayList<Integer>(1);
+	    bitsPerVariable.add(n);
 	  
 	    links = new int[M][N][K];
 	    for (int m=0; m<M; m++) {
@@ -73,14 +85,50 @@ public class MONKLand extends AbstractBinaryProblem {
 	    
 	    // create matrix
 	    matSize = intPow(2, k+1);
-	    mat = new double[M][n][matSize];
+	    mat = new double[n*matSize*M];
 	    for (int i=0; i<n; i++) {
 	    	for (int j=0; j<matSize; j++) {
 	    		for (int m=0; m<M; m++) {
-	    			mat[m][i][j] = random.nextDouble();
+	    			mat[(i*matSize + j)*M + m] = random.nextDouble();
 	    		}
 	    	}
 	    }
+	    buildInverseLinks();
+	}
+	
+	/**
+	 * Builds the sorted loci of every contribution and, for every bit, the loci
+	 * whose contribution depends on it. Must be called after links are set.
+	 */
+	private void buildInverseLinks() {
+		loci = new int[M][N][K + 1];
+		inverseLinks = new int[M][N][];
+		inverseMasks = new int[M][N][];
+		for (int m=0; m<M; m++) {
+			List<List<int[]>> inverse = new ArrayList<List<int[]>>(N);
+			for (int b=0; b<N; b++) inverse.add(new ArrayList<int[]>());
+			for (int i=0; i<N; i++) {
+				System.arraycopy(links[m][i], 0, loci[m][i], 0, K);
+				loci[m][i][K] = i;
+				Arrays.sort(loci[m][i]);
+				for (int q=0; q<K+1; q++) {
+					inverse.get(loci[m][i][q]).add(new int[] {i, 1 << (K - q)});
+				}
+			}
+			for (int b=0; b<N; b++) {
+				List<int[]> affected = inverse.get(b);
+				inverseLinks[m][b] = new int[affected.size()];
+				inverseMasks[m][b] = new int[affected.size()];
+				for (int t=0; t<affected.size(); t++) {
+					inverseLinks[m][b][t] = affected.get(t)[0];
+					inverseMasks[m][b][t] = affected.get(t)[1];
+				}
+			}
+		}
+		sharedLinks = true;
+		for (int m=1; m<M; m++) {
+			sharedLinks &= Arrays.deepEquals(loci[0], loci[m]);
+		}
 	}
 	
 	private int intPow(int a, int b) {
@@ -92,53 +140,116 @@ public class MONKLand extends AbstractBinaryProblem {
 	
 	
 	@Override
-	public synchronized BinarySolution evaluate(BinarySolution solution) {
-		int[] bits = new int[N];
+	public BinarySolution evaluate(BinarySolution solution) {
+		int[] bits = scratch.get();
+		if (bits.length != N) {
+			bits = new int[N];
+			scratch.set(bits);
+		}
+		BinarySet packed = BitStringSolution.bits(solution);
 		for (int i=0; i<N; i++) {
-			boolean bit = solution.variables().get(i).get(0);
-			bits[i] = bit ? 1 : 0;
+			bits[i] = packed.get(i) ? 1 : 0;
 		}
 		
-		double[] obj = new double[M];
+		// the solution's own objectives accumulate the contributions
+		double[] obj = solution.objectives();
 		for (int m=0; m<M; m++) obj[m]=0;
 		
-		int[] indexes = new int[K + 1];  // re-used across iterations
-        int[] nicheBits = new int[K + 1]; // re-used to store bits in sorted order
+		// loci are sorted once in buildInverseLinks, the M contributions of a pattern are adjacent in mat
 		for (int i=0; i<N; i++) {
-			for (int m=0; m<M; m++) {
-				System.arraycopy(links[m][i], 0, indexes, 0, K);
-                indexes[K] = i;
-
-                Arrays.sort(indexes);
-				
-                for (int j = 0; j < K + 1; j++) {
-                    nicheBits[j] = bits[indexes[j]];
-                }
-                int patternIndex = bits2int(nicheBits);
-                obj[m] += mat[m][i][patternIndex];
+			if (sharedLinks) {
+				int base = (i*matSize + pattern(bits, loci[0][i]))*M;
+				for (int m=0; m<M; m++) {
+					obj[m] += mat[base + m];
+				}
+			} else {
+				for (int m=0; m<M; m++) {
+					obj[m] += mat[(i*matSize + pattern(bits, loci[m][i]))*M + m];
+				}
 			}
 		}
 		
 		for (int m=0; m<M; m++) {
-			solution.objectives()[m] = 1 - obj[m]/N;
+			obj[m] = 1 - obj[m]/N;
 		}
 		
 		return solution;
 	}
 	
-	private int bits2int(int[] bits) {
-        int index = 0;
-        for (int b : bits) {
-            index = (index << 1) | (b & 1);
-        }
-        return index;
-    }
+	/**
+	 * Flips bit i
+	 */
+	@Override
+	public void applyMove(BinarySolution solution, int i, int j) {
+		BitStringSolution.flip(solution, i);
+	}
+
+	@Override
+	public void evaluateMove(BinarySolution parent, BinarySolution neighbour, int i, int j) {
+		double[] delta = flipDelta(parent, i);
+		for (int m=0; m<M; m++) {
+			neighbour.objectives()[m] = parent.objectives()[m] + delta[m];
+		}
+	}
+
+	@Override
+	public void undoMove(BinarySolution parent, BinarySolution neighbour, int i, int j) {
+		BitStringSolution.flip(neighbour, i);
+		System.arraycopy(parent.objectives(), 0, neighbour.objectives(), 0, M);
+	}
+
+	/**
+	 * Change of every objective when bit b of parent is flipped, in O(K * deg(b)).
+	 * Only the contributions of the loci linked to b (and of b itself) change.
+	 */
+	public double[] flipDelta(BinarySolution parent, int b) {
+		double[] delta = new double[M];
+		BinarySet bits = BitStringSolution.bits(parent);
+		for (int m=0; m<M; m++) {
+			double sum = 0;
+			for (int t=0; t<inverseLinks[m][b].length; t++) {
+				int i = inverseLinks[m][b][t];
+				int patternIndex = pattern(bits, loci[m][i]);
+				sum += contribution(m, i, patternIndex ^ inverseMasks[m][b][t]) - contribution(m, i, patternIndex);
+			}
+			delta[m] = -sum/N;
+		}
+		return delta;
+	}
+
+	private int pattern(BinarySet bits, int[] indexes) {
+		int index = 0;
+		for (int j : indexes) {
+			index = (index << 1) | (bits.get(j) ? 1 : 0);
+		}
+		return index;
+	}
+	
+	private int pattern(int[] bits, int[] indexes) {
+		int index = 0;
+		for (int j : indexes) {
+			index = (index << 1) | bits[j];
+		}
+		return index;
+	}
+	
+	/**
+	 * @return contribution of locus i to objective m for the given pattern of its sorted loci
+	 */
+	double contribution(int m, int i, int pattern) {
+		return mat[(i*matSize + pattern)*M + m];
+	}
 
 	@Override
 	public void setName(String name) {
 		super.setName(name);
 	}
 	
+	@Override
+	public BinarySolution createSolution() {
+		return new BitStringSolution(N, getNumberOfObjectives(), getNumberOfConstraints());
+	}
+	
 	@Override
 	public List<Integer> getListOfBitsPerVariable() {
 		return bitsPerVariable;
@@ -171,10 +282,10 @@ public class MONKLand extends AbstractBinaryProblem {
 			for(int i=0; i<N; i++) {
 				for(int j=0; j<matSize; j++) {
 					for (int m=0; m<M-1; m++) {
-						writer.print(mat[m][i][j]);
+						writer.print(contribution(m, i, j));
 						writer.print(' ');
 					}
-					writer.print(mat[M-1][i][j]);
+					writer.print(contribution(M-1, i, j));
 					writer.println();
 				}
 			}
@@ -220,16 +331,19 @@ public class MONKLand extends AbstractBinaryProblem {
 				String[] nbs1 = reader1.nextLine().split("   ");
 				String[] nbs2 = reader2.nextLine().split("   ");
 				for (int i=0; i<N; i++) {
-					mat[0][i][e] = Double.valueOf(nbs1[i+1]);
-					mat[1][i][e] = Double.valueOf(nbs2[i+1]);
+					mat[(i*matSize + e)*M] = Double.valueOf(nbs1[i+1]);
+					mat[(i*matSize + e)*M + 1] = Double.valueOf(nbs2[i+1]);
 				}
 			}
 		} catch (IOException e) {e.printStackTrace();}
+		buildInverseLinks();
 		
 		return this;
 	}
 	
 	public MONKLand load(String path) {
+		if (path.endsWith(BinaryInstance.EXTENSION))
+			return loadBinary(path);
 		FileInputStream inputStream;
 		try {
 			LineIterator reader = FileUtils.lineIterator(new File(path));
@@ -253,7 +367,7 @@ public class MONKLand extends AbstractBinaryProblem {
 				for (int j=0; j<matSize; j++) {
 					String[] str = reader.nextLine().split(" ");
 					for (int m=0; m<M; m++) { 
-						mat[m][i][j] = Double.valueOf(str[m]);
+						mat[(i*matSize + j)*M + m] = Double.valueOf(str[m]);
 					}			
 				}
 			}
@@ -263,7 +377,49 @@ public class MONKLand extends AbstractBinaryProblem {
 			System.out.println("File not exist, creating one");
 			save(path);
 		} 
+		buildInverseLinks();
 		
 		return this;
 	}
+	
+	/**
+	 * Loads an instance written by saveBinary, see BinaryInstance.
+	 * payload: links[M][N][K] row by row, then mat in its interleaved layout
+	 */
+	public MONKLand loadBinary(String path) {
+		BinaryInstance instance = BinaryInstance.map(path, BinaryInstance.NK);
+		this.N = instance.n;
+		this.M = instance.M;
+		this.K = instance.K;
+		setNumberOfVariables(N);
+		setNumberOfObjectives(M);
+		setName("NK-"+N+"-"+K);
+		bitsPerVariable = new ArrayList<Integer>(1);
+		bitsPerVariable.add(N);
+		this.matSize = intPow(2, K+1);
+		int[] flat = instance.getInts(M*N*K);
+		links = new int[M][N][K];
+		for (int m=0; m<M; m++) {
+			for (int i=0; i<N; i++) {
+				System.arraycopy(flat, (m*N + i)*K, links[m][i], 0, K);
+			}
+		}
+		mat = instance.getDoubles(N*matSize*M);
+		buildInverseLinks();
+		
+		return this;
+	}
+	
+	public void saveBinary(String path) {
+		int[] flat = new int[M*N*K];
+		for (int m=0; m<M; m++) {
+			for (int i=0; i<N; i++) {
+				System.arraycopy(links[m][i], 0, flat, (m*N + i)*K, K);
+			}
+		}
+		BinaryInstance.create(BinaryInstance.NK, N, M, K, 0,
+				BinaryInstance.intBytes(flat.length) + (long) mat.length * Double.BYTES)
+				.putInts(flat).putDoubles(mat)
+				.write(path);
+	}
 }
@@ -6,6 +6,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Collections;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.LineIterator;
@@ -13,7 +14,7 @@ import org.uma.jmetal.problem.permutationproblem.impl.AbstractIntegerPermutation
 import org.uma.jmetal.solution.permutationsolution.PermutationSolution;
 import org.uma.jmetal.util.pseudorandom.JMetalRandom;
 
-public class MOQAP extends AbstractIntegerPermutationProblem {
+public class MOQAP extends AbstractIntegerPermutationProblem implements MoveEvaluable<PermutationSolution<Integer>> {
 
 	int n;
 	int M = 2;
@@ -21,9 +22,9 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 	double opt1, opt2;
 	double[] x;
 	double[] y;
-	double[][] distance;
+	double[] distance; // distance matrix, distance[i*n + j]
 
-	private double[][][] flows; // flow matrix
+	private double[] flows; // flow matrices, objectives interleaved: flows[(a*n + b)*M + m]
 
 	public MOQAP() {
 		initProblem(50);
@@ -47,7 +48,7 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 			y[i] = random.nextDouble(0, 5000);
 		}
 		// calculate distance matrix
-		distance = new double[n][n];
+		double[][] distance = new double[n][n];
 		for (int i = 0; i < n; i++) {
 			for (int j = i; j < n; j++) {
 				distance[i][j] = Math.sqrt((x[i] - x[j]) * (x[i] - x[j]) + (y[i] - y[j]) * (y[i] - y[j]));
@@ -56,7 +57,7 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 		}
 
 		// create flow matrix
-		flows = new double[M][n][n];
+		double[][][] flows = new double[M][n][n];
 		for (int m = 0; m < M; m++) {
 			for (int i = 0; i < n; i++) {
 				for (int j = 0; j < n; j++) {
@@ -64,6 +65,22 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 				}
 			}
 		}
+		setMatrices(distance, flows);
+	}
+
+	/**
+	 * Packs distance[i][j] and flows[m][a][b] into the flat distance and objective-interleaved flows
+	 */
+	void setMatrices(double[][] distance, double[][][] flows) {
+		this.distance = new double[n * n];
+		this.flows = new double[n * n * M];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				this.distance[i * n + j] = distance[i][j];
+				for (int m = 0; m < M; m++)
+					this.flows[(i * n + j) * M + m] = flows[m][i][j];
+			}
+		}
 	}
 
 	@Override
@@ -71,6 +88,11 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 		return n;
 	}
 
+	@Override
+	public PermutationSolution<Integer> createSolution() {
+		return new IntPermutationSolution(n, getNumberOfObjectives(), getNumberOfConstraints());
+	}
+
 	public void save(String path) {
 		File file = new File(path);
 		if (file.exists()) {
@@ -84,7 +106,7 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 			// save distance
 			for (int i = 0; i < n; i++) {
 				for (int j = 0; j < n; j++) {
-					writer.print(distance[i][j] + " ");
+					writer.print(distance[i * n + j] + " ");
 				}
 				writer.println();
 			}
@@ -93,7 +115,7 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 			for (int m = 0; m < M; m++) {
 				for (int i = 0; i < n; i++) {
 					for (int j = 0; j < n; j++) {
-						writer.print(flows[m][i][j] + " ");
+						writer.print(flows[(i * n + j) * M + m] + " ");
 					}
 					writer.println();
 				}
@@ -106,6 +128,8 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 	}
 
 	public MOQAP load(String path) {
+		if (path.endsWith(BinaryInstance.EXTENSION))
+			return loadBinary(path);
 		FileInputStream inputStream;
 		try {
 			inputStream = new FileInputStream(path);
@@ -114,6 +138,8 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 			this.M = Integer.valueOf(reader.readLine());
 			setNumberOfVariables(n);
 			setNumberOfObjectives(M);
+			double[][] distance = new double[n][n];
+			double[][][] flows = new double[M][n][n];
 
 			for (int i = 0; i < n; i++) {
 				String[] str = reader.readLine().split(" ");
@@ -132,6 +158,7 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 			}
 
 			reader.close();
+			setMatrices(distance, flows);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -139,12 +166,36 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 		return this;
 	}
 	
+	/**
+	 * Loads an instance written by saveBinary, see BinaryInstance.
+	 * payload: distance, then flows in its interleaved layout
+	 */
+	public MOQAP loadBinary(String path) {
+		BinaryInstance instance = BinaryInstance.map(path, BinaryInstance.QAP);
+		this.n = instance.n;
+		this.M = instance.M;
+		setNumberOfVariables(n);
+		setNumberOfObjectives(M);
+		setName("QAP-" + n);
+		distance = instance.getDoubles(n * n);
+		flows = instance.getDoubles(n * n * M);
+		return this;
+	}
+
+	public void saveBinary(String path) {
+		BinaryInstance.create(BinaryInstance.QAP, n, M, 0, 0, (long) (distance.length + flows.length) * Double.BYTES)
+				.putDoubles(distance).putDoubles(flows)
+				.write(path);
+	}
+
 	public MOQAP loadXiaofeng(String path) {
 		int m = getNumberOfObjectives();
 		int n = getNumberOfVariables();
 		String afile = path+"mQAP-M"+m+"-D"+n+"_a.txt";
 		String b1file = path+"mQAP-M"+m+"-D"+n+"_b1.txt";
 		String b2file = path+"mQAP-M"+m+"-D"+n+"_b2.txt";
+		double[][] distance = new double[n][n];
+		double[][][] flows = new double[m][n][n];
 		// read distance
 		try {
 			LineIterator reader = FileUtils.lineIterator(new File(afile));
@@ -168,26 +219,100 @@ public class MOQAP extends AbstractIntegerPermutationProblem {
 				}
 			}
 		} catch (IOException e) {e.printStackTrace();}
+		setMatrices(distance, flows);
 		
 		return this;
 	}
 
 	@Override
-	public synchronized PermutationSolution<Integer> evaluate(PermutationSolution<Integer> solution) {
-		double[] cost = new double[M];
-		for (int k = 0; k < M; k++)
-			cost[k] = 0;
-		for (int k = 0; k < M; k++) {
+	public PermutationSolution<Integer> evaluate(PermutationSolution<Integer> solution) {
+		// reads only the instance data, so concurrent calls on a shared instance are safe
+		int[] p = IntPermutationSolution.intArray(solution);
+		double[] cost = solution.objectives();
+		// one distance and one flow pair lookup serve all objectives
+		if (M == 2) {
+			double cost0 = 0, cost1 = 0;
 			for (int i = 0; i < n; i++) {
+				int row = p[i] * n;
+				int di = i * n;
 				for (int j = 0; j < n; j++) {
-					cost[k] += distance[i][j] * flows[k][solution.variables().get(i)][solution.variables().get(j)];
+					double d = distance[di + j];
+					int f = (row + p[j]) << 1;
+					cost0 += d * flows[f];
+					cost1 += d * flows[f + 1];
 				}
 			}
+			cost[0] = cost0;
+			cost[1] = cost1;
+			return solution;
 		}
-		for (int k = 0; k < M; k++) {
-			solution.objectives()[k] = cost[k];
+		for (int k = 0; k < M; k++)
+			cost[k] = 0;
+		for (int i = 0; i < n; i++) {
+			int row = p[i] * n;
+			for (int j = 0; j < n; j++) {
+				double d = distance[i * n + j];
+				int f = (row + p[j]) * M;
+				for (int k = 0; k < M; k++)
+					cost[k] += d * flows[f + k];
+			}
 		}
 		return solution;
 	}
 
+	/**
+	 * Swaps the facilities at positions i and j
+	 */
+	@Override
+	public void applyMove(PermutationSolution<Integer> solution, int i, int j) {
+		if (solution instanceof IntPermutationSolution)
+			((IntPermutationSolution) solution).swap(i, j);
+		else
+			Collections.swap(solution.variables(), i, j);
+	}
+
+	@Override
+	public void evaluateMove(PermutationSolution<Integer> parent, PermutationSolution<Integer> neighbour, int i,
+			int j) {
+		double[] delta = swapDelta(parent, i, j);
+		for (int k = 0; k < M; k++) {
+			neighbour.objectives()[k] = parent.objectives()[k] + delta[k];
+		}
+	}
+
+	@Override
+	public void undoMove(PermutationSolution<Integer> parent, PermutationSolution<Integer> neighbour, int i, int j) {
+		applyMove(neighbour, i, j);
+		System.arraycopy(parent.objectives(), 0, neighbour.objectives(), 0, M);
+	}
+
+	/**
+	 * Change of every objective when the facilities at positions r and s of parent are swapped, in O(n).
+	 * Only the terms of row/column r and s of the cost sum change.
+	 */
+	public double[] swapDelta(PermutationSolution<Integer> parent, int r, int s) {
+		double[] delta = new double[M];
+		int[] p = IntPermutationSolution.intArray(parent);
+		int pr = p[r];
+		int ps = p[s];
+		int rr = (pr * n + pr) * M, ss = (ps * n + ps) * M, rs = (pr * n + ps) * M, sr = (ps * n + pr) * M;
+		for (int k = 0; k < M; k++) {
+			delta[k] = distance[r * n + r] * (flows[ss + k] - flows[rr + k])
+					+ distance[s * n + s] * (flows[rr + k] - flows[ss + k])
+					+ distance[r * n + s] * (flows[sr + k] - flows[rs + k])
+					+ distance[s * n + r] * (flows[rs + k] - flows[sr + k]);
+		}
+		for (int i = 0; i < n; i++) {
+			if (i == r || i == s)
+				continue;
+			int pi = p[i];
+			double dr = distance[r * n + i] - distance[s * n + i];
+			double dc = distance[i * n + r] - distance[i * n + s];
+			int si = (ps * n + pi) * M, ri = (pr * n + pi) * M, is = (pi * n + ps) * M, ir = (pi * n + pr) * M;
+			for (int k = 0; k < M; k++)
+				delta[k] += dr * (flows[si + k] - flows[ri + k]) + dc * (flows[is + k] - flows[ir + k]);
+		}
+		return delta;
+	}
+
 }
@@ -6,6 +6,8 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.LineIterator;
@@ -18,7 +20,7 @@ import org.uma.jmetal.util.pseudorandom.JMetalRandom;
  * @author Zimin Liang
  * This version is bi-objective ONLY.
  */
-public class MOTSP extends AbstractIntegerPermutationProblem {
+public class MOTSP extends AbstractIntegerPermutationProblem implements MoveEvaluable<PermutationSolution<Integer>> {
 
 	public int n;
 	int M = 2;
@@ -26,8 +28,11 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 	double opt1, opt2;
 	double[][] x;
 	double[][] y;
-	public double[][][] map;
+	// distance matrices, objectives interleaved: map[edge(i, j) + m] is the distance i->j in objective m
+	// symmetric instances store the lower triangle only
+	public double[] map;
 	public String matType = "RAN";
+	boolean symmetric = false;
 
 	public MOTSP() {
 		initProblem(50);
@@ -54,7 +59,7 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 				}
 			}
 			// calculate distance
-			map = new double[M][n][n];
+			double[][][] map = new double[M][n][n];
 			for (int k = 0; k < M; k++) {
 				for (int i = 0; i < n; i++) {
 					for (int j = i; j < n; j++) {
@@ -65,9 +70,10 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 					}
 				}
 			}
+			setMatrices(map);
 		} else if (matType.contentEquals("RAN")) {
 			JMetalRandom random = JMetalRandom.getInstance();
-			map = new double[M][n][n];
+			double[][][] map = new double[M][n][n];
 			for (int k = 0; k < M; k++) {
 				for (int i = 0; i < n; i++) {
 					for (int j = i; j < n; j++) {
@@ -77,6 +83,7 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 					}
 				}
 			}
+			setMatrices(map);
 		}
 	}
 
@@ -85,12 +92,15 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 		return n;
 	}
 
+	@Override
+	public PermutationSolution<Integer> createSolution() {
+		return new IntPermutationSolution(n, getNumberOfObjectives(), getNumberOfConstraints());
+	}
+
 	public MOTSP load(String path1, String path2) {
 		double[][] matrix1 = loadMatrixFile(path1);
 		double[][] matrix2 = loadMatrixFile(path2);
-		map = new double[M][n][n];
-		map[0] = matrix1;
-		map[1] = matrix2;
+		setMatrices(new double[][][] { matrix1, matrix2 });
 		return this;
 	}
 	
@@ -99,6 +109,7 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 		int n = getNumberOfVariables();
 		String d1file = path+"MOTSP-M"+m+"-D"+n+"_d1.txt";
 		String d2file = path+"MOTSP-M"+m+"-D"+n+"_d2.txt";
+		double[][][] map = new double[m][n][n];
 		try {
 			LineIterator reader1 = FileUtils.lineIterator(new File(d1file));
 			LineIterator reader2 = FileUtils.lineIterator(new File(d2file));
@@ -111,6 +122,7 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 				}
 			}
 		} catch (IOException e) {e.printStackTrace();}
+		setMatrices(map);
 		
 		return this;
 	}
@@ -168,7 +180,7 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 			for (int m = 0; m < M; m++) {
 				for (int i = 0; i < n; i++) {
 					for (int j = 0; j < n; j++) {
-						writer.print(map[m][i][j] + " ");
+						writer.print(distance(m, i, j) + " ");
 					}
 					writer.println();
 				}
@@ -181,6 +193,8 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 	}
 
 	public MOTSP load(String path) {
+		if (path.endsWith(BinaryInstance.EXTENSION))
+			return loadBinary(path);
 		FileInputStream inputStream;
 		try {
 			inputStream = new FileInputStream(path);
@@ -189,6 +203,7 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 			this.M = Integer.valueOf(reader.readLine());
 			setNumberOfVariables(n);
 			setNumberOfObjectives(M);
+			double[][][] map = new double[M][n][n];
 
 			for (int m = 0; m < M; m++) {
 				for (int i = 0; i < n; i++) {
@@ -200,29 +215,167 @@ public class MOTSP extends AbstractIntegerPermutationProblem {
 			}
 
 			reader.close();
+			setMatrices(map);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 		return this;
 	}
 
+	/**
+	 * Loads an instance written by saveBinary, see BinaryInstance.
+	 * flags bit 0: symmetric, payload: map in its interleaved (triangular if symmetric) layout
+	 */
+	public MOTSP loadBinary(String path) {
+		BinaryInstance instance = BinaryInstance.map(path, BinaryInstance.TSP);
+		this.n = instance.n;
+		this.M = instance.M;
+		setNumberOfVariables(n);
+		setNumberOfObjectives(M);
+		setName("TSP-" + n);
+		symmetric = (instance.flags & 1) != 0;
+		map = instance.getDoubles((symmetric ? n * (n + 1) / 2 : n * n) * M);
+		return this;
+	}
+
+	public void saveBinary(String path) {
+		BinaryInstance.create(BinaryInstance.TSP, n, M, 0, symmetric ? 1 : 0, (long) map.length * Double.BYTES)
+				.putDoubles(map)
+				.write(path);
+	}
+
+	/**
+	 * Packs the distance matrices map[m][i][j] into the flat, objective-interleaved map,
+	 * keeping only the lower triangle when every matrix is symmetric.
+	 */
+	void setMatrices(double[][][] matrices) {
+		symmetric = isSymmetric(matrices);
+		map = new double[(symmetric ? n * (n + 1) / 2 : n * n) * M];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < (symmetric ? i + 1 : n); j++) {
+				int e = edge(i, j);
+				for (int m = 0; m < M; m++)
+					map[e + m] = matrices[m][i][j];
+			}
+		}
+	}
+
+	/**
+	 * @return index in map of the distance i->j of the first objective, the M objectives follow it
+	 */
+	int edge(int i, int j) {
+		if (!symmetric)
+			return (i * n + j) * M;
+		return (i >= j ? i * (i + 1) / 2 + j : j * (j + 1) / 2 + i) * M;
+	}
+
+	public double distance(int m, int i, int j) {
+		return map[edge(i, j) + m];
+	}
+
+	/**
+	 * 2-opt delta evaluation is only valid when every distance matrix is symmetric,
+	 * otherwise the reversed segment changes the cost of all its inner edges.
+	 */
+	private boolean isSymmetric(double[][][] map) {
+		for (int m = 0; m < M; m++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = i + 1; j < n; j++) {
+					if (map[m][i][j] != map[m][j][i])
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+
 	@Override
-	public synchronized PermutationSolution<Integer> evaluate(PermutationSolution<Integer> solution) {
-		double[] distance = new double[M];
-		for (int j = 0; j < M; j++)
-			distance[j] = 0;
-		for (int j = 0; j < M; j++) {
-			for (int i = 0; i < n - 1; i++) {
-				int start = solution.variables().get(i);
-				int dest = solution.variables().get(i + 1);
-				distance[j] += map[j][start][dest];
+	public PermutationSolution<Integer> evaluate(PermutationSolution<Integer> solution) {
+		// reads only the instance data, so concurrent calls on a shared instance are safe
+		int[] tour = IntPermutationSolution.intArray(solution);
+		double[] distance = solution.objectives();
+		// one edge lookup serves all objectives
+		if (M == 2) {
+			double distance0 = 0, distance1 = 0;
+			for (int i = 0; i < n; i++) {
+				int e = edge(tour[i], tour[i == n - 1 ? 0 : i + 1]);
+				distance0 += map[e];
+				distance1 += map[e + 1];
 			}
-			distance[j] += map[j][solution.variables().get(n - 1)][solution.variables().get(0)];
+			distance[0] = distance0;
+			distance[1] = distance1;
+			return solution;
 		}
-		for (int j = 0; j < M; j++) {
-			solution.objectives()[j] = distance[j];
+		for (int j = 0; j < M; j++)
+			distance[j] = 0;
+		for (int i = 0; i < n; i++) {
+			int e = edge(tour[i], tour[i == n - 1 ? 0 : i + 1]);
+			for (int j = 0; j < M; j++)
+				distance[j] += map[e + j];
 		}
 		return solution;
 	}
 
+	/**
+	 * Reverses positions i..j, a 2-opt move
+	 */
+	@Override
+	public void applyMove(PermutationSolution<Integer> solution, int i, int j) {
+		if (solution instanceof IntPermutationSolution)
+			((IntPermutationSolution) solution).reverse(i, j);
+		else
+			Collections.reverse(solution.variables().subList(i, j + 1));
+	}
+
+	@Override
+	public void evaluateMove(PermutationSolution<Integer> parent, PermutationSolution<Integer> neighbour, int i,
+			int j) {
+		if (!symmetric) {
+			evaluate(neighbour);
+			return;
+		}
+		double[] distance = evaluateTwoOpt(parent, i, j);
+		for (int k = 0; k < M; k++) {
+			neighbour.objectives()[k] = distance[k];
+		}
+	}
+
+	@Override
+	public void undoMove(PermutationSolution<Integer> parent, PermutationSolution<Integer> neighbour, int i, int j) {
+		applyMove(neighbour, i, j);
+		System.arraycopy(parent.objectives(), 0, neighbour.objectives(), 0, M);
+	}
+
+	/**
+	 * Objectives of the tour obtained by reversing positions i..j (i < j) of parent, in O(1).
+	 * Only the edges entering and leaving the reversed segment change, given a symmetric map.
+	 */
+	public double[] evaluateTwoOpt(PermutationSolution<Integer> parent, int i, int j) {
+		double[] distance = new double[M];
+		for (int k = 0; k < M; k++)
+			distance[k] = parent.objectives()[k];
+		// reversing the whole tour gives the same cycle
+		if (i == 0 && j == n - 1)
+			return distance;
+		int a, b, c, d;
+		if (parent instanceof IntPermutationSolution) {
+			int[] tour = ((IntPermutationSolution) parent).permutation();
+			a = tour[i == 0 ? n - 1 : i - 1];
+			b = tour[i];
+			c = tour[j];
+			d = tour[j == n - 1 ? 0 : j + 1];
+		} else {
+			List<Integer> tour = parent.variables();
+			a = tour.get(i == 0 ? n - 1 : i - 1);
+			b = tour.get(i);
+			c = tour.get(j);
+			d = tour.get(j == n - 1 ? 0 : j + 1);
+		}
+		int ac = edge(a, c), bd = edge(b, d), ab = edge(a, b), cd = edge(c, d);
+		for (int k = 0; k < M; k++) {
+			distance[k] += map[ac + k] + map[bd + k] - map[ab + k] - map[cd + k];
+		}
+		return distance;
+	}
+
 }
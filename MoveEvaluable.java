@@ -0,0 +1,30 @@
+package gecco24;
+
+import org.uma.jmetal.solution.Solution;
+
+/**
+ * MoveEvaluable
+ * A problem whose local search moves can be applied to a solution in place, evaluated and undone,
+ * so that the local searches only copy the neighbours they keep. A move is given by the positions
+ * i and j decoded by Neighbourhood, i == j for single-position moves. Every move is a bit flip,
+ * double flip, swap or reversal of positions i..j, and changes positions i and j and either all or
+ * none of the positions in between.
+ */
+public interface MoveEvaluable<S extends Solution<?>> {
+
+	/**
+	 * Applies the move to the genotype of solution, in place
+	 */
+	public void applyMove(S solution, int i, int j);
+
+	/**
+	 * Sets the objectives (and constraints) of neighbour, a copy of parent the move has been applied
+	 * to: by delta evaluation from the unmodified parent when supported, fully otherwise.
+	 */
+	public void evaluateMove(S parent, S neighbour, int i, int j);
+
+	/**
+	 * Reverts the move on neighbour, which gets back the genotype and the evaluation of parent
+	 */
+	public void undoMove(S parent, S neighbour, int i, int j);
+}
@@ -0,0 +1,340 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.uma.jmetal.solution.Solution;
+
+/**
+ * NDTreeArchive
+ * Non-dominated archive for any number of objectives, organised as an ND-tree
+ * (Jaszkiewicz and Lust, "ND-Tree-based update", IEEE TEVC 2018).
+ * Every node keeps the ideal and nadir point of its subtree. A new point is rejected as soon as
+ * a node's nadir weakly dominates it, removes a whole subtree whose ideal it dominates, and skips
+ * every subtree whose box it can neither dominate nor be dominated by; only the remaining leaves
+ * are compared point by point. Accepted points descend to the child with the closest box centre,
+ * and a leaf holding more than maxLeafSize points is split into M+1 children.
+ * After removals the boxes are not shrunk, they stay valid bounds of their subtree.
+ */
+@SuppressWarnings("serial")
+public class NDTreeArchive<S extends Solution> extends AbstractFrontArchive<S> {
+
+	private final int maxLeafSize;
+	private Node root = null;
+	private int size = 0;
+
+	private class Node {
+		List<Node> children = null; // null for a leaf
+		List<S> points = new ArrayList<S>(); // null for an internal node
+		double[] ideal;
+		double[] nadir;
+
+		Node(double[] f) {
+			ideal = f.clone();
+			nadir = f.clone();
+		}
+
+		boolean isLeaf() {
+			return children == null;
+		}
+
+		boolean isEmpty() {
+			return isLeaf() ? points.isEmpty() : children.isEmpty();
+		}
+
+		void include(double[] f) {
+			for (int i = 0; i < f.length; i++) {
+				if (f[i] < ideal[i])
+					ideal[i] = f[i];
+				if (f[i] > nadir[i])
+					nadir[i] = f[i];
+			}
+		}
+
+		boolean contains(double[] f) {
+			return weaklyDominates(ideal, f) && weaklyDominates(f, nadir);
+		}
+
+		/**
+		 * Replaces this node by its only child
+		 */
+		void collapse() {
+			Node child = children.get(0);
+			children = child.children;
+			points = child.points;
+			ideal = child.ideal;
+			nadir = child.nadir;
+		}
+	}
+
+	public NDTreeArchive() {
+		this(20);
+	}
+
+	public NDTreeArchive(int maxLeafSize) {
+		this.maxLeafSize = maxLeafSize;
+	}
+
+	// a single pass that rejects or removes, instead of relation() followed by insertFeasible()
+	@Override
+	protected boolean addFeasible(S solution) {
+		double[] f = solution.objectives();
+		if (root != null) {
+			if (!update(root, f))
+				return false;
+			if (root.isEmpty())
+				root = null;
+		}
+		if (root == null)
+			root = new Node(f);
+		insert(root, solution);
+		size++;
+		return true;
+	}
+
+	@Override
+	protected void insertFeasible(S solution) {
+		addFeasible(solution);
+	}
+
+	@Override
+	protected Relation relation(S solution) {
+		return root == null ? Relation.NONDOMINATED : relation(root, solution.objectives());
+	}
+
+	private Relation relation(Node node, double[] f) {
+		if (weaklyDominates(node.nadir, f) && !equals(node.nadir, f))
+			return Relation.DOMINATED;
+		if (weaklyDominates(f, node.ideal) && !equals(f, node.ideal))
+			return Relation.DOMINATES;
+		if (!weaklyDominates(node.ideal, f) && !weaklyDominates(f, node.nadir))
+			return Relation.NONDOMINATED;
+		if (node.isLeaf()) {
+			for (S point : node.points) {
+				double[] p = point.objectives();
+				if (equals(p, f))
+					return Relation.EQUAL;
+				if (weaklyDominates(p, f))
+					return Relation.DOMINATED;
+				if (weaklyDominates(f, p))
+					return Relation.DOMINATES;
+			}
+		} else {
+			for (Node child : node.children) {
+				Relation relation = relation(child, f);
+				if (relation != Relation.NONDOMINATED)
+					return relation;
+			}
+		}
+		return Relation.NONDOMINATED;
+	}
+
+	/**
+	 * Removes the points of node dominated by f
+	 * @return false if a point of node dominates or equals f
+	 */
+	private boolean update(Node node, double[] f) {
+		if (weaklyDominates(node.nadir, f))
+			return false;
+		if (weaklyDominates(f, node.ideal) && !equals(f, node.ideal)) {
+			List<S> dominated = new ArrayList<S>();
+			collect(node, dominated);
+			size -= dominated.size();
+			node.children = null;
+			node.points = new ArrayList<S>();
+			dominated.forEach(this::removed);
+			return true;
+		}
+		if (!weaklyDominates(node.ideal, f) && !weaklyDominates(f, node.nadir))
+			return true; // f is incomparable with every point in the box
+		if (node.isLeaf()) {
+			Iterator<S> points = node.points.iterator();
+			while (points.hasNext()) {
+				S point = points.next();
+				double[] p = point.objectives();
+				if (weaklyDominates(p, f))
+					return false;
+				if (weaklyDominates(f, p)) {
+					points.remove();
+					size--;
+					removed(point);
+				}
+			}
+		} else {
+			Iterator<Node> children = node.children.iterator();
+			while (children.hasNext()) {
+				Node child = children.next();
+				if (!update(child, f))
+					return false;
+				if (child.isEmpty())
+					children.remove();
+			}
+			if (node.children.size() == 1)
+				node.collapse();
+		}
+		return true;
+	}
+
+	@Override
+	protected boolean removeFeasible(S solution) {
+		if (root == null || !remove(root, solution, solution.objectives()))
+			return false;
+		size--;
+		if (root.isEmpty())
+			root = null;
+		return true;
+	}
+
+	/**
+	 * Removes solution from the leaves of node whose box contains f
+	 */
+	private boolean remove(Node node, S solution, double[] f) {
+		if (!node.contains(f))
+			return false;
+		if (node.isLeaf()) {
+			for (int i = 0; i < node.points.size(); i++) {
+				if (node.points.get(i) == solution) {
+					node.points.remove(i);
+					return true;
+				}
+			}
+			return false;
+		}
+		Iterator<Node> children = node.children.iterator();
+		while (children.hasNext()) {
+			Node child = children.next();
+			if (remove(child, solution, f)) {
+				if (child.isEmpty())
+					children.remove();
+				if (node.children.size() == 1)
+					node.collapse();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void insert(Node node, S solution) {
+		double[] f = solution.objectives();
+		while (!node.isLeaf()) {
+			node.include(f);
+			node = closest(node.children, f);
+		}
+		node.include(f);
+		node.points.add(solution);
+		if (node.points.size() > maxLeafSize)
+			split(node);
+	}
+
+	/**
+	 * Turns a full leaf into M+1 leaves: the first seed is the point farthest on average from
+	 * the others, each next seed the point farthest on average from the seeds so far, and the
+	 * remaining points go to the leaf with the closest box centre.
+	 */
+	private void split(Node node) {
+		List<S> points = node.points;
+		int numberOfChildren = Math.min(points.get(0).objectives().length + 1, points.size());
+		List<Node> children = new ArrayList<Node>(numberOfChildren);
+		boolean[] seeded = new boolean[points.size()];
+		List<S> reference = points;
+		while (children.size() < numberOfChildren) {
+			int seed = farthest(points, seeded, reference);
+			seeded[seed] = true;
+			if (reference == points)
+				reference = new ArrayList<S>(numberOfChildren);
+			reference.add(points.get(seed));
+			Node child = new Node(points.get(seed).objectives());
+			child.points.add(points.get(seed));
+			children.add(child);
+		}
+		for (int i = 0; i < points.size(); i++) {
+			if (seeded[i])
+				continue;
+			double[] f = points.get(i).objectives();
+			Node child = closest(children, f);
+			child.include(f);
+			child.points.add(points.get(i));
+		}
+		node.points = null;
+		node.children = children;
+	}
+
+	/**
+	 * @return index of the point not yet seeded with the largest average distance to reference
+	 */
+	private int farthest(List<S> points, boolean[] seeded, List<S> reference) {
+		int best = -1;
+		double bestDistance = -1;
+		for (int i = 0; i < points.size(); i++) {
+			if (seeded[i])
+				continue;
+			double distance = 0;
+			for (S r : reference)
+				distance += distance(points.get(i).objectives(), r.objectives());
+			distance /= reference.size();
+			if (distance > bestDistance) {
+				bestDistance = distance;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private Node closest(List<Node> nodes, double[] f) {
+		Node best = null;
+		double bestDistance = Double.POSITIVE_INFINITY;
+		for (Node node : nodes) {
+			double distance = 0;
+			for (int i = 0; i < f.length; i++) {
+				double d = (node.ideal[i] + node.nadir[i]) / 2 - f[i];
+				distance += d * d;
+			}
+			if (distance < bestDistance) {
+				bestDistance = distance;
+				best = node;
+			}
+		}
+		return best;
+	}
+
+	private static double distance(double[] a, double[] b) {
+		double distance = 0;
+		for (int i = 0; i < a.length; i++)
+			distance += (a[i] - b[i]) * (a[i] - b[i]);
+		return Math.sqrt(distance);
+	}
+
+	private static boolean weaklyDominates(double[] a, double[] b) {
+		for (int i = 0; i < a.length; i++)
+			if (a[i] > b[i])
+				return false;
+		return true;
+	}
+
+	private static boolean equals(double[] a, double[] b) {
+		for (int i = 0; i < a.length; i++)
+			if (a[i] != b[i])
+				return false;
+		return true;
+	}
+
+	@Override
+	protected int frontSize() {
+		return size;
+	}
+
+	@Override
+	protected void collect(List<S> list) {
+		if (root != null)
+			collect(root, list);
+	}
+
+	private void collect(Node node, List<S> list) {
+		if (node.isLeaf())
+			list.addAll(node.points);
+		else
+			for (Node child : node.children)
+				collect(child, list);
+	}
+}
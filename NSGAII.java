@@ -8,6 +8,7 @@ import org.uma.jmetal.operator.selection.impl.RankingAndCrowdingSelection;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.SolutionListUtils;
+import org.uma.jmetal.util.archive.Archive;
 import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 import org.uma.jmetal.util.comparator.DominanceComparator;
 import org.uma.jmetal.util.evaluator.SolutionListEvaluator;
@@ -17,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * @author Zimin Liang <z.liang.1@bham.ac.uk>
@@ -39,9 +39,19 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 	protected int t = 0;
 	private int stagnantStop = Integer.MAX_VALUE;
 
-	private NonDominatedSolutionListArchive<S> archive;
+	private Archive<S> archive;
 	private int nonUpdateEvaluationSum = 0;
 
+	// buffers reused across generations
+	private final List<S> matingPopulation = new ArrayList<>();
+	private final List<S> offspringPopulation = new ArrayList<>();
+	private final List<S> parents = new ArrayList<>();
+	private final List<S> jointPopulation = new ArrayList<>();
+	private final List<S> populationA = new ArrayList<>();
+	private final List<S> populationB = new ArrayList<>();
+	private RankingAndCrowdingSelection<S> rankingAndCrowdingSelection;
+	private BiObjectiveRankingAndCrowding<S> biObjectiveRanking; // replaces rankingAndCrowdingSelection when M = 2
+
 	protected String savePath = null;
 	private Consumer<ZAlgorithm> monitor = null;
 	public void setMonitor(Consumer<ZAlgorithm> m) {this.monitor=m;};
@@ -83,13 +93,19 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 		this.matingPoolSize = matingPoolSize;
 		this.offspringPopulationSize = offspringPopulationSize;
 		this.archive = new NonDominatedSolutionListArchive<S>();
+		this.rankingAndCrowdingSelection = new RankingAndCrowdingSelection<S>(populationSize, dominanceComparator);
+		setBiObjectiveRanking(true);
 	}
 
 	@Override
 	public void run() {
-		generationalInit();
-		while (!isStoppingConditionReached()) {
-			generationalRun();
+		try {
+			generationalInit();
+			while (!isStoppingConditionReached()) {
+				generationalRun();
+			}
+		} finally {
+			evaluator.shutdown();
 		}
 	}
 
@@ -100,13 +116,9 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 	}
 
 	public void generationalRun() {
-		List<S> offspringPopulation;
-		List<S> matingPopulation;
-
-		matingPopulation = selection(population);
-		offspringPopulation = reproduction(matingPopulation);
-		offspringPopulation = evaluatePopulation(offspringPopulation);
-		population = replacement(population, offspringPopulation);
+		List<S> offspring = reproduction(selection(population));
+		offspring = evaluatePopulation(offspring);
+		population = replacement(population, offspring);
 		updateProgress();
 	}
 
@@ -115,7 +127,7 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 		evaluations = getMaxPopulationSize();
 		this.t = 0;
 		if (archive != null)
-			archive.addAll(population);
+			population.forEach(archive::add);
 		if (monitor != null) monitor.accept(this);
 	}
 
@@ -144,18 +156,16 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 	 * to fill the mating pool population.
 	 *
 	 * @param population
-	 * @return The mating pool population
+	 * @return The mating pool population, a buffer reused by the next generation
 	 */
 	@Override
 	protected List<S> selection(List<S> population) {
-		List<S> matingPopulation = new ArrayList<>(population.size());
+		matingPopulation.clear();
 		for (int i = 0; i < matingPoolSize; i++) {
 			S solution = selection.execute(population);
 			matingPopulation.add(solution);
 		}
 
-		List<S> newList = population.stream().map(solution -> (S) solution.copy()).collect(Collectors.toList());
-
 		return matingPopulation;
 	}
 
@@ -170,7 +180,7 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 	 * equal to the offspringPopulationSize state variable
 	 *
 	 * @param matingPool
-	 * @return The new created offspring population
+	 * @return The new created offspring population, a buffer reused by the next generation
 	 */
 	@Override
 	protected List<S> reproduction(List<S> matingPool) {
@@ -178,9 +188,9 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 
 		checkNumberOfParents(matingPool, numberOfParents);
 
-		List<S> offspringPopulation = new ArrayList<>(offspringPopulationSize);
+		offspringPopulation.clear();
 		for (int i = 0; i < matingPool.size(); i += numberOfParents) {
-			List<S> parents = new ArrayList<>(numberOfParents);
+			parents.clear();
 			for (int j = 0; j < numberOfParents; j++) {
 				parents.add(matingPool.get(i + j));
 			}
@@ -197,9 +207,12 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 		return offspringPopulation;
 	}
 
+	/**
+	 * @return the next population, one of two buffers used in turn
+	 */
 	@Override
 	protected List<S> replacement(List<S> population, List<S> offspringPopulation) {
-		List<S> jointPopulation = new ArrayList<>();
+		jointPopulation.clear();
 		jointPopulation.addAll(population);
 		jointPopulation.addAll(offspringPopulation);
 		if (archive != null) {
@@ -211,10 +224,22 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 					nonUpdateEvaluationSum = 0;
 			}
 		}
-		RankingAndCrowdingSelection<S> rankingAndCrowdingSelection;
-		rankingAndCrowdingSelection = new RankingAndCrowdingSelection<S>(getMaxPopulationSize(), dominanceComparator);
+		if (biObjectiveRanking == null)
+			return rankingAndCrowdingSelection.execute(jointPopulation);
+		List<S> next = population == populationA ? populationB : populationA;
+		return biObjectiveRanking.execute(jointPopulation, getMaxPopulationSize(), next);
+	}
 
-		return rankingAndCrowdingSelection.execute(jointPopulation);
+	/**
+	 * @param enabled true to select the next population with BiObjectiveRankingAndCrowding on
+	 *                bi-objective problems under DominanceComparator (the default), false to always
+	 *                use RankingAndCrowdingSelection
+	 */
+	public void setBiObjectiveRanking(boolean enabled) {
+		this.biObjectiveRanking = enabled && getProblem().getNumberOfObjectives() == 2
+				&& dominanceComparator.getClass() == DominanceComparator.class
+						? new BiObjectiveRankingAndCrowding<S>()
+						: null;
 	}
 
 	@Override
@@ -231,7 +256,7 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 		return population;
 	}
 
-	public void setArchive(NonDominatedSolutionListArchive archive) {
+	public void setArchive(Archive<S> archive) {
 		this.archive = archive;
 	}
 
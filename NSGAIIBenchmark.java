@@ -0,0 +1,57 @@
+package gecco24;
+
+import java.util.List;
+
+import org.uma.jmetal.problem.Problem;
+
+/**
+ * NSGAIIBenchmark
+ * NSGAII selecting the next population with RankingAndCrowdingSelection against
+ * BiObjectiveRankingAndCrowding, for growing population sizes on a knapsack and a TSP instance:
+ * milliseconds per generation and speed-up. The quadratic sort is skipped beyond 20000, where a
+ * generation takes minutes.
+ *
+ * java gecco24.NSGAIIBenchmark [problemInfoDirectory] [generations]
+ * Without a data directory ("-"), random instances of the same sizes are generated.
+ */
+public class NSGAIIBenchmark {
+
+	private static final int[] POPULATIONS = { 100, 1000, 10000, 50000 };
+	private static final int QUADRATIC_LIMIT = 20000;
+
+	public static void main(String[] args) {
+		String dir = args.length > 0 && !args[0].equals("-") ? args[0] : null;
+		int generations = args.length > 1 ? Integer.valueOf(args[1]) : 20;
+
+		List<Problem> problems = dir == null ? List.of(new Knapsack01(1000), new MOTSP(500))
+				: List.of(new Knapsack01(1000).load(dir + "KP-1000.txt"), new MOTSP(500).load(dir + "TSP-500.txt"));
+
+		System.out.println("problem\tN\tranking ms/generation\tbi-objective ms/generation\tspeed-up");
+		for (Problem problem : problems) {
+			for (int n : POPULATIONS) {
+				time(problem, n, true, 2); // warm-up
+				double biObjective = time(problem, n, true, generations);
+				double ranking = Double.NaN;
+				if (n <= QUADRATIC_LIMIT) {
+					time(problem, n, false, 2);
+					ranking = time(problem, n, false, generations);
+				}
+				System.out.printf("%s\t%d\t%.1f\t%.1f\t%.1f%n", problem.getName(), n, ranking, biObjective,
+						ranking / biObjective);
+			}
+		}
+	}
+
+	/**
+	 * @return milliseconds per generation of an NSGAII run, initial population excluded
+	 */
+	private static double time(Problem problem, int n, boolean biObjective, int generations) {
+		NSGAII nsgaii = ExperimentRunner.createNSGAII(problem, generations + 1, n);
+		nsgaii.setBiObjectiveRanking(biObjective);
+		nsgaii.generationalInit();
+		long t0 = System.nanoTime();
+		for (int g = 0; g < generations; g++)
+			nsgaii.generationalRun();
+		return (System.nanoTime() - t0) / 1e6 / generations;
+	}
+}
@@ -0,0 +1,115 @@
+package gecco24;
+
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.errorchecking.JMetalException;
+
+/**
+ * NeighbourMoves
+ * Explores the neighbourhood of a local search candidate in place: every move of the Neighbourhood
+ * is applied to a single working copy of the candidate, evaluated and undone, through the
+ * MoveEvaluable problem, so a neighbour is only copied when the local search keeps it.
+ * The GenotypeCache, if any, is updated with the hash of each move and serves the genotypes it
+ * already holds. With check, each delta evaluation is compared against a full evaluate().
+ */
+public class NeighbourMoves<S extends Solution> {
+
+	private final Problem<S> problem;
+	@SuppressWarnings("rawtypes")
+	private final MoveEvaluable moves;
+	private final Neighbourhood neighbourhood;
+	private final GenotypeCache cache;
+	private boolean check = false;
+
+	/**
+	 * @param cache genotype cache, or null
+	 */
+	@SuppressWarnings("rawtypes")
+	public NeighbourMoves(Problem<S> problem, Neighbourhood neighbourhood, GenotypeCache cache) {
+		if (!(problem instanceof MoveEvaluable))
+			throw new JMetalException("NeighbourMoves: " + problem.getName() + " has no local search moves");
+		this.problem = problem;
+		this.moves = (MoveEvaluable) problem;
+		this.neighbourhood = neighbourhood;
+		this.cache = cache;
+	}
+
+	public Neighbourhood getNeighbourhood() {
+		return neighbourhood;
+	}
+
+	public GenotypeCache getGenotypeCache() {
+		return cache;
+	}
+
+	public void setCheck(boolean check) {
+		this.check = check;
+	}
+
+	/**
+	 * @param work previous working copy, or null
+	 * @return work holding the genotype, evaluation and attributes of parent, or a copy of parent
+	 *         if work is null or cannot be overwritten
+	 */
+	@SuppressWarnings("unchecked")
+	public S reset(S parent, S work) {
+		if (parent instanceof IntPermutationSolution && work instanceof IntPermutationSolution) {
+			int[] permutation = ((IntPermutationSolution) parent).permutation();
+			System.arraycopy(permutation, 0, ((IntPermutationSolution) work).permutation(), 0, permutation.length);
+		} else if (parent instanceof BitStringSolution && work instanceof BitStringSolution) {
+			((BitStringSolution) work).bits().clear();
+			((BitStringSolution) work).bits().or(((BitStringSolution) parent).bits());
+		} else
+			return (S) parent.copy();
+		System.arraycopy(parent.objectives(), 0, work.objectives(), 0, parent.objectives().length);
+		System.arraycopy(parent.constraints(), 0, work.constraints(), 0, parent.constraints().length);
+		work.attributes().clear();
+		work.attributes().putAll(parent.attributes());
+		return work;
+	}
+
+	/**
+	 * Applies move to work, which holds parent, and evaluates it
+	 * @return number of evaluations it counts for, 0 for a free genotype cache hit
+	 */
+	@SuppressWarnings("unchecked")
+	public int apply(S parent, S work, int move) {
+		int i = neighbourhood.first(move);
+		int j = neighbourhood.second(move);
+		moves.applyMove(work, i, j);
+		if (cache != null) {
+			cache.move(parent, work, i, j);
+			if (cache.lookup(work))
+				return cache.countsHits() ? 1 : 0;
+		}
+		moves.evaluateMove(parent, work, i, j);
+		if (check)
+			check(work, i, j);
+		if (cache != null)
+			cache.store(work);
+		return 1;
+	}
+
+	/**
+	 * Undoes apply(parent, work, move), work then holds parent again
+	 */
+	@SuppressWarnings("unchecked")
+	public void undo(S parent, S work, int move) {
+		moves.undoMove(parent, work, neighbourhood.first(move), neighbourhood.second(move));
+		if (cache != null)
+			work.attributes().put(GenotypeCache.HASH, cache.hash(parent));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void check(S work, int i, int j) {
+		S full = (S) work.copy();
+		problem.evaluate(full);
+		for (int m = 0; m < problem.getNumberOfObjectives(); m++) {
+			double expected = full.objectives()[m];
+			double actual = work.objectives()[m];
+			if (Math.abs(expected - actual) > 1e-6 * Math.max(1.0, Math.abs(expected)))
+				throw new JMetalException("Delta evaluation mismatch on " + problem.getName() + " move (" + i + ", "
+						+ j + "), objective " + m + ": " + actual + " != " + expected);
+		}
+	}
+}
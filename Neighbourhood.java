@@ -0,0 +1,124 @@
+package gecco24;
+
+import org.uma.jmetal.util.errorchecking.JMetalException;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+/**
+ * Neighbourhood
+ * The moves of the local searches, single positions (bit flips) or pairs of positions i < j
+ * (double flips, swaps, 2-opt), without materialising them. A move is its int rank in the
+ * order (0), (1), ... or (0,1), (0,2), ..., (1,2), ..., and is decoded in O(1).
+ * A Cursor scans all moves once, in that order or, when shuffled, in the full-period order of a
+ * random linear congruential generator modulo the next power of two, skipping the ranks beyond
+ * size(). Either way a cursor is a few ints, whatever the size of the neighbourhood.
+ */
+public class Neighbourhood {
+
+	private final int n;
+	private final int d;
+	private final int size;
+	private final boolean shuffled;
+
+	/**
+	 * @param n        number of positions
+	 * @param d        1 for single positions, 2 for pairs
+	 * @param shuffled true for cursors in pseudo-random order
+	 */
+	public Neighbourhood(int n, int d, boolean shuffled) {
+		if (d != 1 && d != 2)
+			throw new JMetalException("Neighbourhood: moves of 1 or 2 positions expected, got " + d);
+		if (d == 2 && (long) n * (n - 1) / 2 > Integer.MAX_VALUE)
+			throw new JMetalException("Neighbourhood: too many pairs of " + n + " positions");
+		this.n = n;
+		this.d = d;
+		this.size = d == 1 ? n : (int) ((long) n * (n - 1) / 2);
+		this.shuffled = shuffled;
+	}
+
+	/**
+	 * @return number of moves
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return first position of move
+	 */
+	public int first(int move) {
+		if (d == 1)
+			return move;
+		// largest i with offset(i) <= move, from the root of the quadratic, then corrected for rounding
+		long b = 2L * n - 1;
+		int i = (int) ((b - Math.sqrt((double) (b * b - 8L * move))) / 2);
+		while (i > 0 && offset(i) > move)
+			i--;
+		while (offset(i + 1) <= move)
+			i++;
+		return i;
+	}
+
+	/**
+	 * @return second position of move, the first one again for single positions
+	 */
+	public int second(int move) {
+		if (d == 1)
+			return move;
+		int i = first(move);
+		return (int) (move - offset(i)) + i + 1;
+	}
+
+	/**
+	 * @return rank of the first pair starting at position i
+	 */
+	private long offset(int i) {
+		return (long) i * (2L * n - i - 1) / 2;
+	}
+
+	/**
+	 * @return a uniformly random move
+	 */
+	public int sample() {
+		return JMetalRandom.getInstance().nextInt(0, size - 1);
+	}
+
+	/**
+	 * @return a new cursor over all moves
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	public class Cursor {
+		private int visited = 0;
+		private long state;
+		private long multiplier;
+		private long increment;
+		private long mask;
+
+		private Cursor() {
+			if (shuffled) {
+				// c odd and a = 1 mod 4 give a full period modulo a power of two
+				mask = Long.highestOneBit(Math.max(1, size - 1)) * 2 - 1;
+				JMetalRandom random = JMetalRandom.getInstance();
+				multiplier = (4L * random.nextInt(0, Integer.MAX_VALUE - 1) + 1) & mask;
+				increment = (2L * random.nextInt(0, Integer.MAX_VALUE - 1) + 1) & mask;
+				state = random.nextInt(0, Integer.MAX_VALUE - 1) & mask;
+			}
+		}
+
+		public boolean hasNext() {
+			return visited < size;
+		}
+
+		public int next() {
+			if (!shuffled)
+				return visited++;
+			do
+				state = (multiplier * state + increment) & mask;
+			while (state >= size);
+			visited++;
+			return (int) state;
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.uma.jmetal.solution.Solution;
+
+/**
+ * OHIQueue
+ * Bi-objective points by decreasing OHI, the hypervolume of the boxes a point spans with its
+ * neighbours on the front: ohvc(left, p) + ohvc(p, right), twice the single box at either end.
+ * The points are kept sorted by the first objective, and their OHI values in an indexed max-heap,
+ * ties broken by the smaller first objective. Adding or removing a point only changes the OHI of
+ * its two neighbours, so add(), remove() and best() are O(log n), against a sort of all points
+ * to recompute every OHI at each selection.
+ */
+public class OHIQueue<S extends Solution> {
+
+	private static class Entry<S> {
+		final S solution;
+		final double f0;
+		final double f1;
+		double ohi = 0;
+		int heapIndex;
+
+		Entry(S solution) {
+			this.solution = solution;
+			this.f0 = ((Solution<?>) solution).objectives()[0];
+			this.f1 = ((Solution<?>) solution).objectives()[1];
+		}
+	}
+
+	private final TreeSet<Entry<S>> front = new TreeSet<Entry<S>>(
+			Comparator.<Entry<S>>comparingDouble(e -> e.f0).thenComparingDouble(e -> e.f1));
+	private final Map<S, Entry<S>> entries = new IdentityHashMap<S, Entry<S>>();
+	private final List<Entry<S>> heap = new ArrayList<Entry<S>>();
+
+	public void add(S solution) {
+		Entry<S> entry = new Entry<S>(solution);
+		if (!front.add(entry))
+			return;
+		entries.put(solution, entry);
+		entry.heapIndex = heap.size();
+		heap.add(entry);
+		siftUp(entry);
+		update(entry);
+		update(front.lower(entry));
+		update(front.higher(entry));
+	}
+
+	public void remove(S solution) {
+		Entry<S> entry = entries.remove(solution);
+		if (entry == null)
+			return;
+		Entry<S> left = front.lower(entry);
+		Entry<S> right = front.higher(entry);
+		front.remove(entry);
+		Entry<S> last = heap.remove(heap.size() - 1);
+		if (last != entry) {
+			heap.set(entry.heapIndex, last);
+			last.heapIndex = entry.heapIndex;
+			siftUp(last);
+			siftDown(last);
+		}
+		update(left);
+		update(right);
+	}
+
+	/**
+	 * @return the point with the largest OHI, or null if empty
+	 */
+	public S best() {
+		return heap.isEmpty() ? null : heap.get(0).solution;
+	}
+
+	public int size() {
+		return heap.size();
+	}
+
+	/**
+	 * Recomputes the OHI of entry from its current neighbours
+	 */
+	private void update(Entry<S> entry) {
+		if (entry == null)
+			return;
+		Entry<S> left = front.lower(entry);
+		Entry<S> right = front.higher(entry);
+		double ohi;
+		if (left == null)
+			ohi = right == null ? 0 : 2 * ohvc(entry, right);
+		else
+			ohi = right == null ? 2 * ohvc(left, entry) : ohvc(left, entry) + ohvc(entry, right);
+		double old = entry.ohi;
+		entry.ohi = ohi;
+		if (ohi > old)
+			siftUp(entry);
+		else if (ohi < old)
+			siftDown(entry);
+	}
+
+	private static double ohvc(Entry<?> e1, Entry<?> e2) {
+		return Math.abs(e1.f0 - e2.f0) * Math.abs(e1.f1 - e2.f1);
+	}
+
+	/**
+	 * @return true if a comes before b in the heap
+	 */
+	private static boolean before(Entry<?> a, Entry<?> b) {
+		return a.ohi > b.ohi || (a.ohi == b.ohi && a.f0 < b.f0);
+	}
+
+	private void siftUp(Entry<S> entry) {
+		int i = entry.heapIndex;
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!before(entry, heap.get(parent)))
+				break;
+			move(heap.get(parent), i);
+			i = parent;
+		}
+		move(entry, i);
+	}
+
+	private void siftDown(Entry<S> entry) {
+		int i = entry.heapIndex;
+		int n = heap.size();
+		while (2 * i + 1 < n) {
+			int child = 2 * i + 1;
+			if (child + 1 < n && before(heap.get(child + 1), heap.get(child)))
+				child++;
+			if (!before(heap.get(child), entry))
+				break;
+			move(heap.get(child), i);
+			i = child;
+		}
+		move(entry, i);
+	}
+
+	private void move(Entry<S> entry, int i) {
+		heap.set(i, entry);
+		entry.heapIndex = i;
+	}
+}
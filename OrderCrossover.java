@@ -8,7 +8,6 @@ import org.uma.jmetal.util.pseudorandom.JMetalRandom;
 import org.uma.jmetal.util.pseudorandom.RandomGenerator;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 
 @SuppressWarnings("serial")
@@ -102,31 +101,34 @@ public class OrderCrossover implements
 				cuttingPoint1 = cuttingPoint2;
 				cuttingPoint2 = swap;
 			}
-			Integer[] child0 = new Integer[permutationLength];
-			Integer[] child1 = new Integer[permutationLength];
-			HashSet<Integer> snippet0 = new HashSet<Integer>();
-			HashSet<Integer> snippet1 = new HashSet<Integer>();
+			// unboxed views of the offspring, the backing arrays of IntPermutationSolutions
+			int[] parent0 = IntPermutationSolution.intArray(offspring.get(0));
+			int[] parent1 = IntPermutationSolution.intArray(offspring.get(1));
+			int[] child0 = new int[permutationLength];
+			int[] child1 = new int[permutationLength];
+			boolean[] snippet0 = new boolean[permutationLength];
+			boolean[] snippet1 = new boolean[permutationLength];
 			for (int i = cuttingPoint1; i < cuttingPoint2; i++) {
-				snippet0.add(offspring.get(0).variables().get(i));
-				snippet1.add(offspring.get(1).variables().get(i));
-				child0[i] = offspring.get(0).variables().get(i);
-				child1[i] = offspring.get(1).variables().get(i);
+				snippet0[parent0[i]] = true;
+				snippet1[parent1[i]] = true;
+				child0[i] = parent0[i];
+				child1[i] = parent1[i];
 			}
 
 			// child0 get parent
 			int i = cuttingPoint2;
 			int j = cuttingPoint2;
 			while (i < permutationLength) {
-				if (!snippet0.contains(offspring.get(1).variables().get(j))) {
-					child0[i] = offspring.get(1).variables().get(j);
+				if (!snippet0[parent1[j]]) {
+					child0[i] = parent1[j];
 					i += 1;
 				}
 				j = (j + 1) % permutationLength;
 			}
 			i = 0;
 			while (i < cuttingPoint1) {
-				if (!snippet0.contains(offspring.get(1).variables().get(j))) {
-					child0[i] = offspring.get(1).variables().get(j);
+				if (!snippet0[parent1[j]]) {
+					child0[i] = parent1[j];
 					i += 1;
 				}
 				j = (j + 1) % permutationLength;
@@ -136,25 +138,23 @@ public class OrderCrossover implements
 			i = cuttingPoint2;
 			j = cuttingPoint2;
 			while (i < permutationLength) {
-				if (!snippet1.contains(offspring.get(0).variables().get(j))) {
-					child1[i] = offspring.get(0).variables().get(j);
+				if (!snippet1[parent0[j]]) {
+					child1[i] = parent0[j];
 					i += 1;
 				}
 				j = (j + 1) % permutationLength;
 			}
 			i = 0;
 			while (i < cuttingPoint1) {
-				if (!snippet1.contains(offspring.get(0).variables().get(j))) {
-					child1[i] = offspring.get(0).variables().get(j);
+				if (!snippet1[parent0[j]]) {
+					child1[i] = parent0[j];
 					i += 1;
 				}
 				j = (j + 1) % permutationLength;
 			}
 
-			for (i = 0; i < permutationLength; i++) {
-				offspring.get(0).variables().set(i, child0[i]);
-				offspring.get(1).variables().set(i, child1[i]);
-			}
+			IntPermutationSolution.assign(offspring.get(0), child0);
+			IntPermutationSolution.assign(offspring.get(1), child1);
 			/*
 			 * int cuttingPoint1; int cuttingPoint2;
 			 * 
@@ -3,15 +3,17 @@ package gecco24;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.BiFunction;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
 import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 import org.uma.jmetal.util.comparator.DominanceComparator;
+import org.uma.jmetal.util.errorchecking.JMetalException;
 import org.uma.jmetal.util.pseudorandom.JMetalRandom;
 
 public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S> {
@@ -19,10 +21,9 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 	private static final long serialVersionUID = -4985021281052183946L;
 	private int evaluations = 0;
 	private Problem<S> problem;
-	private Supplier<List<List<Integer>>> indexGenerator;
-	private BiFunction<S, List<Integer>, S> neighbourGenerator;
+	private NeighbourMoves<S> moves;
 	private DominanceComparator<S> dominance;
-	private NonDominatedSolutionListArchive archive;
+	private Archive<S> archive;
 	private List<S> initSolutions = null;
 	private Consumer<ZAlgorithm> monitor = null;
 
@@ -34,23 +35,23 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 		this.monitor = monitor;
 	}
 
-	private List<List<Integer>> neighbourIndices;
-
 	private int maxEvaluations = Integer.MAX_VALUE;
 	private boolean prompt = true;
 	private S candidate;
-	private NonDominatedSolutionListArchive<S> explore;
-
-	public PLS(Problem<S> problem, Supplier<List<List<Integer>>> indexGenerator,
-			BiFunction<S, List<Integer>, S> neighborGenerator, DominanceComparator<S> dominance) {
+	private S work = null; // working copy of the candidate the moves are applied to
+	private ExploreSet<S> explore;
+	private int parallelism = 1;
+	private ForkJoinPool pool = null;
+	private int[] batch = new int[0]; // moves of the candidate evaluated in parallel, in cursor order
+	private Solution[] kept = new Solution[0]; // neighbour of each move of batch kept for the merge, or null
+	private int walkers = 1;
+	private volatile WalkerPool walkerPool = null; // while the walkers run
+
+	public PLS(Problem<S> problem, NeighbourMoves<S> moves, DominanceComparator<S> dominance) {
 		this.problem = problem;
-		this.indexGenerator = indexGenerator;
-		this.neighbourGenerator = neighborGenerator;
+		this.moves = moves;
 		this.dominance = dominance;
 		this.archive = new NonDominatedSolutionListArchive<S>();
-
-		neighbourIndices = new ArrayList<List<Integer>>();
-		indexGenerator.get().forEach(neighbourIndices::add);
 	}
 
 	@Override
@@ -79,11 +80,32 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 			initSolutions.forEach(i -> problem.evaluate(i));
 			evaluations = initSolutions.size();
 		}
-		archive.addAll(initSolutions);
+		initSolutions.forEach(archive::add);
 
-		explore = new NonDominatedSolutionListArchive<S>();
-		explore.addAll(initSolutions);
+		explore = new ExploreSet<S>(problem.getNumberOfObjectives());
+		initSolutions.forEach(explore::add);
+
+		if (walkers > 1) {
+			if (parallelism > 1)
+				throw new JMetalException("PLS: walkers evaluate their neighbourhoods sequentially");
+			runWalkers();
+			return;
+		}
+		if (parallelism > 1) {
+			if (moves.getGenotypeCache() != null)
+				throw new JMetalException("PLS: the genotype cache cannot be shared by parallel evaluations");
+			pool = new ForkJoinPool(parallelism);
+		}
+		try {
+			search();
+		} finally {
+			if (pool != null)
+				pool.shutdownNow();
+			pool = null;
+		}
+	}
 
+	private void search() {
 		while (explore.size() > 0) {
 			if (prompt)
 				System.out.println("Explore list size: " + explore.size() + ";  \tevaluations: " + evaluations
@@ -92,34 +114,149 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 			// random selection
 			candidate = (S) sample(explore.getSolutionList());
 
-			List<List<Integer>> neighbourIndices;
-			if (!candidate.attributes().containsKey("neighbourIndices")) {
-				neighbourIndices = new ArrayList<List<Integer>>();
-				this.neighbourIndices.forEach(neighbourIndices::add);
-				candidate.attributes().put("neighbourIndices", neighbourIndices);
-			}
-			neighbourIndices = (List<List<Integer>>) candidate.attributes().get("neighbourIndices");
-
-			// neighbourhood exploration
-			for (int index = 0; index<neighbourIndices.size(); index++) {
-				S nb = neighbourGenerator.apply(candidate, neighbourIndices.get(index));
-
-				if (evaluations < maxEvaluations) {
-					problem.evaluate(nb);
-					evaluations++;
-					boolean added = archive.add(nb);
-					if (added)
-						explore.add(nb);
-					if (monitor != null)
-						monitor.accept(this);
-				} else
-					break;
+			// neighbourhood exploration, in place on the working copy
+			if (pool != null)
+				exploreParallel();
+			else {
+				work = moves.reset(candidate, work);
+				Neighbourhood.Cursor cursor = moves.getNeighbourhood().cursor();
+				while (cursor.hasNext()) {
+					int move = cursor.next();
+
+					if (evaluations < maxEvaluations) {
+						evaluations += moves.apply(candidate, work, move);
+						if (DominanceQuery.query(archive, work, r -> true, dominance).accepted()) {
+							// the archive keeps the working copy, the next moves get a new one
+							explore.add(work);
+							work = moves.reset(candidate, null);
+						} else
+							moves.undo(candidate, work, move);
+						if (monitor != null)
+							monitor.accept(this);
+					} else
+						break;
+				}
 			}
 			if (evaluations >= maxEvaluations)
 				break;
 		}
 	}
 
+	/**
+	 * Explores the neighbourhood of the candidate as the sequential loop, with the same result for
+	 * any parallelism: the moves within the budget, one evaluation each, are evaluated by fork-join
+	 * chunks that keep the neighbours the archive accepts as it stands, then merged into the archive
+	 * in cursor order. A neighbour rejected by the archive at the start of the exploration is also
+	 * rejected by the archive it would meet in the sequential loop, since the members that dominate
+	 * or equal it are only ever replaced by members dominating it.
+	 */
+	@SuppressWarnings("unchecked")
+	private void exploreParallel() {
+		Neighbourhood.Cursor cursor = moves.getNeighbourhood().cursor();
+		int count = (int) Math.min(moves.getNeighbourhood().size(), (long) maxEvaluations - evaluations);
+		if (batch.length < count) {
+			batch = new int[count];
+			kept = new Solution[count];
+		}
+		for (int k = 0; k < count; k++)
+			batch[k] = cursor.next();
+
+		pool.invoke(new Chunk(0, count, Math.max(64, count / (4 * parallelism))));
+
+		for (int k = 0; k < count; k++) {
+			S nb = (S) kept[k];
+			kept[k] = null;
+			evaluations++;
+			if (nb != null && DominanceQuery.query(archive, nb, r -> true, dominance).accepted())
+				explore.add(nb);
+			if (monitor != null)
+				monitor.accept(this);
+		}
+	}
+
+	/**
+	 * Evaluates the moves batch[from..to) on its own working copy of the candidate, reading the
+	 * archive only
+	 */
+	@SuppressWarnings("serial")
+	private class Chunk extends RecursiveAction {
+		private final int from;
+		private final int to;
+		private final int grain;
+
+		Chunk(int from, int to, int grain) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Chunk(from, middle, grain), new Chunk(middle, to, grain));
+				return;
+			}
+			S nb = moves.reset(candidate, null);
+			for (int k = from; k < to; k++) {
+				moves.apply(candidate, nb, batch[k]);
+				if (DominanceQuery.query(archive, nb, r -> false, dominance).accepted()) {
+					kept[k] = nb;
+					nb = moves.reset(candidate, null);
+				} else
+					moves.undo(candidate, nb, batch[k]);
+			}
+		}
+	}
+
+	/**
+	 * Multi-walker PLS: the walkers pick candidates and explore their neighbourhoods at the same time,
+	 * sharing the archive, the explore set and the evaluation budget
+	 */
+	private void runWalkers() {
+		if (moves.getGenotypeCache() != null)
+			throw new JMetalException("PLS: the genotype cache cannot be shared by walkers");
+		ConcurrentArchive<S> sharedArchive = new ConcurrentArchive<S>(archive, dominance);
+		ConcurrentArchive<S> sharedExplore = new ConcurrentArchive<S>(explore, dominance);
+		archive = sharedArchive;
+		walkerPool = new WalkerPool(evaluations, maxEvaluations);
+		try {
+			walkerPool.run(walkers, () -> walk(sharedArchive, sharedExplore));
+		} finally {
+			evaluations = walkerPool.getEvaluations();
+			walkerPool = null;
+		}
+	}
+
+	/**
+	 * One walker: the PLS loop on the shared archive and explore set, until the budget is spent
+	 */
+	private void walk(ConcurrentArchive<S> sharedArchive, ConcurrentArchive<S> sharedExplore) {
+		S work = null;
+		while (!walkerPool.isStopped()) {
+			S candidate = sharedExplore.sample();
+			if (candidate == null)
+				return;
+			work = moves.reset(candidate, work);
+			Neighbourhood.Cursor cursor = moves.getNeighbourhood().cursor();
+			while (cursor.hasNext()) {
+				int move = cursor.next();
+				if (!walkerPool.claim())
+					return;
+				moves.apply(candidate, work, move);
+				if (sharedArchive.query(work, r -> true).accepted()) {
+					sharedExplore.add(work);
+					work = moves.reset(candidate, null);
+				} else
+					moves.undo(candidate, work, move);
+				if (monitor != null)
+					synchronized (this) {
+						monitor.accept(this);
+					}
+			}
+		}
+	}
+
 	private S sample(List<S> l) {
 		return l.get(JMetalRandom.getInstance().nextInt(0, l.size() - 1));
 	}
@@ -149,6 +286,30 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 		this.maxEvaluations = maxEvaluations;
 	}
 
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * @param parallelism number of threads evaluating the neighbourhood of each candidate, 1 for the
+	 *                    sequential loop. The results do not depend on it.
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public int getWalkers() {
+		return walkers;
+	}
+
+	/**
+	 * @param walkers number of walkers exploring at the same time, each on its own thread, 1 for the
+	 *                sequential search
+	 */
+	public void setWalkers(int walkers) {
+		this.walkers = walkers;
+	}
+
 	public boolean isPrompt() {
 		return prompt;
 	}
@@ -158,7 +319,7 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 	}
 
 	public int getEvaluations() {
-		return evaluations;
+		return walkerPool != null ? walkerPool.getEvaluations() : evaluations;
 	}
 
 	@Override
@@ -166,6 +327,15 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 		return archive.getSolutionList();
 	}
 
+	public void setArchive(Archive<S> archive) {
+		this.archive = archive;
+	}
+
+	@Override
+	public GenotypeCache getGenotypeCache() {
+		return moves.getGenotypeCache();
+	}
+
 	@Override
 	public List<S> getArchive() {
 		return archive.getSolutionList();
@@ -173,7 +343,7 @@ public class PLS<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S
 
 	@Override
 	public int getT() {
-		return evaluations;
+		return getEvaluations();
 	}
 
 	@Override
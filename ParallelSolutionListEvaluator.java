@@ -0,0 +1,78 @@
+package gecco24;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.util.evaluator.SolutionListEvaluator;
+
+/**
+ * ParallelSolutionListEvaluator
+ * Evaluates a list of solutions by fork-join chunks on a pool of its own, unlike jMetal's
+ * MultiThreadedSolutionListEvaluator, which sizes the common pool through a system property and
+ * so for every run of the JVM. Used by NSGAII for the offspring population and by MOEAD for a
+ * batch of offspring. The problem's evaluate() must be thread-safe, as the four problems are.
+ * The pool is created at the first evaluation and released by shutdown(); its threads are daemons.
+ */
+@SuppressWarnings("serial")
+public class ParallelSolutionListEvaluator<S> implements SolutionListEvaluator<S> {
+
+	private final int threads;
+	private transient ForkJoinPool pool = null;
+
+	/**
+	 * @param threads number of threads evaluating the solutions
+	 */
+	public ParallelSolutionListEvaluator(int threads) {
+		this.threads = threads;
+	}
+
+	@Override
+	public List<S> evaluate(List<S> solutionList, Problem<S> problem) {
+		if (pool == null)
+			pool = new ForkJoinPool(threads);
+		int grain = Math.max(1, solutionList.size() / (4 * threads));
+		pool.invoke(new Chunk(solutionList, problem, 0, solutionList.size(), grain));
+		return solutionList;
+	}
+
+	@Override
+	public void shutdown() {
+		if (pool != null)
+			pool.shutdownNow();
+		pool = null;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	private class Chunk extends RecursiveAction {
+		private final List<S> solutions;
+		private final Problem<S> problem;
+		private final int from;
+		private final int to;
+		private final int grain;
+
+		Chunk(List<S> solutions, Problem<S> problem, int from, int to, int grain) {
+			this.solutions = solutions;
+			this.problem = problem;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Chunk(solutions, problem, from, middle, grain),
+						new Chunk(solutions, problem, middle, to, grain));
+				return;
+			}
+			for (int k = from; k < to; k++)
+				problem.evaluate(solutions.get(k));
+		}
+	}
+}
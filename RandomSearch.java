@@ -3,6 +3,7 @@ package gecco24;
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
 import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 
 import java.util.List;
@@ -16,7 +17,7 @@ import java.util.List;
 public class RandomSearch<S extends Solution<?>> implements Algorithm<List<S>>, ZAlgorithm<S> {
 	private Problem<S> problem;
 	private int maxEvaluations;
-	NonDominatedSolutionListArchive<S> nonDominatedArchive;
+	Archive<S> nonDominatedArchive;
 	private int evaluations;
 	private int nonUpdateEvaluationSum = 0;
 	private int stagnantStop = Integer.MAX_VALUE;
@@ -75,6 +76,10 @@ public class RandomSearch<S extends Solution<?>> implements Algorithm<List<S>>,
 		return nonDominatedArchive.getSolutionList();
 	}
 
+	public void setArchive(Archive<S> archive) {
+		this.nonDominatedArchive = archive;
+	}
+
 	@Override
 	public List getArchive() {
 		return nonDominatedArchive.getSolutionList();
@@ -3,15 +3,15 @@ package gecco24;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.archive.Archive;
 import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 import org.uma.jmetal.util.comparator.DominanceComparator;
+import org.uma.jmetal.util.errorchecking.JMetalException;
 import org.uma.jmetal.util.pseudorandom.JMetalRandom;
 
 public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<S> {
@@ -19,10 +19,9 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 	private static final long serialVersionUID = -4985021281052183946L;
 	private int evaluations = 0;
 	private Problem<S> problem;
-	private Supplier<List<List<Integer>>> indexGenerator;
-	private BiFunction<S, List<Integer>, S> neighbourGenerator;
+	private NeighbourMoves<S> moves;
 	private DominanceComparator<S> dominance;
-	private NonDominatedSolutionListArchive archive;
+	private Archive<S> archive;
 	private List<S> initSolutions = null;
 	private Consumer<ZAlgorithm> monitor = null;
 
@@ -34,23 +33,19 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 		this.monitor = monitor;
 	}
 
-	private List<List<Integer>> neighbourIndices;
-
 	private int maxEvaluations = Integer.MAX_VALUE;
 	private boolean prompt = true;
 	private S candidate;
-	private NonDominatedSolutionListArchive<S> explore;
+	private S work = null; // working copy of the candidate the moves are applied to
+	private ExploreSet<S> explore;
+	private int walkers = 1;
+	private volatile WalkerPool walkerPool = null; // while the walkers run
 
-	public SEMO(Problem<S> problem, Supplier<List<List<Integer>>> indexGenerator,
-			BiFunction<S, List<Integer>, S> neighborGenerator, DominanceComparator<S> dominance) {
+	public SEMO(Problem<S> problem, NeighbourMoves<S> moves, DominanceComparator<S> dominance) {
 		this.problem = problem;
-		this.indexGenerator = indexGenerator;
-		this.neighbourGenerator = neighborGenerator;
+		this.moves = moves;
 		this.dominance = dominance;
 		this.archive = new NonDominatedSolutionListArchive<S>();
-
-		neighbourIndices = new ArrayList<List<Integer>>();
-		indexGenerator.get().forEach(neighbourIndices::add);
 	}
 
 	@Override
@@ -79,10 +74,15 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 			initSolutions.forEach(i -> problem.evaluate(i));
 			evaluations = initSolutions.size();
 		}
-		archive.addAll(initSolutions);
+		initSolutions.forEach(archive::add);
+
+		explore = new ExploreSet<S>(problem.getNumberOfObjectives());
+		initSolutions.forEach(explore::add);
 
-		explore = new NonDominatedSolutionListArchive<S>();
-		explore.addAll(initSolutions);
+		if (walkers > 1) {
+			runWalkers();
+			return;
+		}
 
 		while (explore.size() > 0) {
 			if (prompt)
@@ -92,24 +92,17 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 			// random selection
 			candidate = (S) sample(explore.getSolutionList());
 
-			List<List<Integer>> neighbourIndices;
-			if (!candidate.attributes().containsKey("neighbourIndices")) {
-				neighbourIndices = new ArrayList<List<Integer>>();
-				this.neighbourIndices.forEach(neighbourIndices::add);
-				candidate.attributes().put("neighbourIndices", neighbourIndices);
-			}
-			neighbourIndices = (List<List<Integer>>) candidate.attributes().get("neighbourIndices");
-
-			// neighbourhood exploration
-			int index = JMetalRandom.getInstance().nextInt(0, neighbourIndices.size() - 1);
-			S nb = neighbourGenerator.apply(candidate, neighbourIndices.get(index));
+			// neighbourhood exploration, in place on the working copy
+			work = moves.reset(candidate, work);
+			int move = moves.getNeighbourhood().sample();
 
 			if (evaluations < maxEvaluations) {
-				problem.evaluate(nb);
-				evaluations++;
-				boolean added = archive.add(nb);
-				if (added)
-					explore.add(nb);
+				evaluations += moves.apply(candidate, work, move);
+				if (DominanceQuery.query(archive, work, r -> true, dominance).accepted()) {
+					// the archive keeps the working copy, the next iteration gets a new one
+					explore.add(work);
+					work = null;
+				}
 				if (monitor != null)
 					monitor.accept(this);
 			} else
@@ -120,6 +113,47 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 		}
 	}
 
+	/**
+	 * Multi-walker SEMO: the walkers pick candidates and evaluate random neighbours at the same time,
+	 * sharing the archive, the explore set and the evaluation budget
+	 */
+	private void runWalkers() {
+		if (moves.getGenotypeCache() != null)
+			throw new JMetalException("SEMO: the genotype cache cannot be shared by walkers");
+		ConcurrentArchive<S> sharedArchive = new ConcurrentArchive<S>(archive, dominance);
+		ConcurrentArchive<S> sharedExplore = new ConcurrentArchive<S>(explore, dominance);
+		archive = sharedArchive;
+		walkerPool = new WalkerPool(evaluations, maxEvaluations);
+		try {
+			walkerPool.run(walkers, () -> walk(sharedArchive, sharedExplore));
+		} finally {
+			evaluations = walkerPool.getEvaluations();
+			walkerPool = null;
+		}
+	}
+
+	/**
+	 * One walker: the SEMO loop on the shared archive and explore set, until the budget is spent
+	 */
+	private void walk(ConcurrentArchive<S> sharedArchive, ConcurrentArchive<S> sharedExplore) {
+		S work = null;
+		while (walkerPool.claim()) {
+			S candidate = sharedExplore.sample();
+			if (candidate == null)
+				return;
+			work = moves.reset(candidate, work);
+			moves.apply(candidate, work, moves.getNeighbourhood().sample());
+			if (sharedArchive.query(work, r -> true).accepted()) {
+				sharedExplore.add(work);
+				work = null;
+			}
+			if (monitor != null)
+				synchronized (this) {
+					monitor.accept(this);
+				}
+		}
+	}
+
 	private S sample(List<S> l) {
 		return l.get(JMetalRandom.getInstance().nextInt(0, l.size() - 1));
 	}
@@ -149,6 +183,18 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 		this.maxEvaluations = maxEvaluations;
 	}
 
+	public int getWalkers() {
+		return walkers;
+	}
+
+	/**
+	 * @param walkers number of walkers exploring at the same time, each on its own thread, 1 for the
+	 *                sequential search
+	 */
+	public void setWalkers(int walkers) {
+		this.walkers = walkers;
+	}
+
 	public boolean isPrompt() {
 		return prompt;
 	}
@@ -158,7 +204,7 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 	}
 
 	public int getEvaluations() {
-		return evaluations;
+		return walkerPool != null ? walkerPool.getEvaluations() : evaluations;
 	}
 
 	@Override
@@ -166,6 +212,15 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 		return archive.getSolutionList();
 	}
 
+	public void setArchive(Archive<S> archive) {
+		this.archive = archive;
+	}
+
+	@Override
+	public GenotypeCache getGenotypeCache() {
+		return moves.getGenotypeCache();
+	}
+
 	@Override
 	public List<S> getArchive() {
 		return archive.getSolutionList();
@@ -173,7 +228,7 @@ public class SEMO<S extends Solution> implements Algorithm<List<S>>, ZAlgorithm<
 
 	@Override
 	public int getT() {
-		return evaluations;
+		return getEvaluations();
 	}
 
 	@Override
@@ -7,6 +7,7 @@ import org.uma.jmetal.operator.selection.SelectionOperator;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.SolutionListUtils;
+import org.uma.jmetal.util.archive.Archive;
 import org.uma.jmetal.util.archive.impl.NonDominatedSolutionListArchive;
 import org.uma.jmetal.util.legacy.qualityindicator.impl.hypervolume.Hypervolume;
 import org.uma.jmetal.util.legacy.qualityindicator.impl.hypervolume.impl.WFGHypervolume;
@@ -31,12 +32,14 @@ public class SMSEMOA<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 	private int t;
 	private int stagnantStop = Integer.MAX_VALUE;
 
-	private NonDominatedSolutionListArchive<S> archive;
+	private Archive<S> archive;
 	private int nonUpdateEvaluationSum = 0;
 
 	protected int evaluations;
 
 	private Hypervolume<S> hypervolume;
+	private BiObjectiveHypervolume<S> biObjectiveHypervolume; // replaces hypervolume when M = 2
+	private IncrementalRanking<S> incrementalRanking = new IncrementalRanking<S>(); // null for a full sort per step
 	protected Comparator<S> dominanceComparator;
 
 
@@ -68,6 +71,7 @@ public class SMSEMOA<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 		this.dominanceComparator = dominanceComparator;
 		this.hypervolume = hypervolumeImplementation;
 		this.archive = new NonDominatedSolutionListArchive<S>();
+		setBiObjectiveContributions(true);
 	}
 	
 	@Override
@@ -108,7 +112,11 @@ public class SMSEMOA<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 	protected void initProgress() {
 		evaluations = getMaxPopulationSize();
 		this.t = 0;
-		if (archive != null) archive.addAll(population);
+		if (archive != null) population.forEach(archive::add);
+		if (incrementalRanking != null) {
+			incrementalRanking.clear();
+			population.forEach(incrementalRanking::add);
+		}
 		if (biObjHVwriter != null) {
 			
 		}
@@ -170,6 +178,8 @@ public class SMSEMOA<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 
 	@Override
 	protected List<S> replacement(List<S> population, List<S> offspringPopulation) {
+		if (incrementalRanking != null)
+			return incrementalReplacement(population, offspringPopulation);
 		List<S> jointPopulation = new ArrayList<>();
 		jointPopulation.addAll(population);
 		jointPopulation.addAll(offspringPopulation);
@@ -179,7 +189,10 @@ public class SMSEMOA<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 
 		List<S> lastSubfront = ranking.getSubFront(ranking.getNumberOfSubFronts() - 1);
 
-		lastSubfront = hypervolume.computeHypervolumeContribution(lastSubfront, jointPopulation);
+		if (biObjectiveHypervolume != null)
+			lastSubfront = biObjectiveHypervolume.computeHypervolumeContribution(lastSubfront);
+		else
+			lastSubfront = hypervolume.computeHypervolumeContribution(lastSubfront, jointPopulation);
 
 		List<S> resultPopulation = new ArrayList<>();
 		for (int i = 0; i < ranking.getNumberOfSubFronts() - 1; i++) {
@@ -191,6 +204,46 @@ public class SMSEMOA<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 		for (int i = 0; i < lastSubfront.size() - 1; i++) {
 			resultPopulation.add(lastSubfront.get(i));
 		}
+		updateArchive(offspringPopulation);
+
+		return resultPopulation;
+	}
+
+	/**
+	 * replacement() on the fronts kept by incrementalRanking: the offspring are added to them and the
+	 * solution of least contribution in the last front removed, without sorting the population again
+	 */
+	private List<S> incrementalReplacement(List<S> population, List<S> offspringPopulation) {
+		if (incrementalRanking.size() != population.size()) { // population set from outside
+			incrementalRanking.clear();
+			population.forEach(incrementalRanking::add);
+		}
+		offspringPopulation.forEach(incrementalRanking::add);
+
+		int last = incrementalRanking.getNumberOfSubFronts() - 1;
+		List<S> lastSubfront = new ArrayList<>(incrementalRanking.getSubFront(last));
+		if (biObjectiveHypervolume != null) {
+			lastSubfront = biObjectiveHypervolume.computeHypervolumeContribution(lastSubfront);
+		} else {
+			List<S> jointPopulation = new ArrayList<>(population);
+			jointPopulation.addAll(offspringPopulation);
+			lastSubfront = hypervolume.computeHypervolumeContribution(lastSubfront, jointPopulation);
+		}
+		incrementalRanking.remove(lastSubfront.get(lastSubfront.size() - 1));
+
+		List<S> resultPopulation = new ArrayList<>(population.size());
+		for (int i = 0; i < last; i++) {
+			resultPopulation.addAll(incrementalRanking.getSubFront(i));
+		}
+		for (int i = 0; i < lastSubfront.size() - 1; i++) {
+			resultPopulation.add(lastSubfront.get(i));
+		}
+		updateArchive(offspringPopulation);
+
+		return resultPopulation;
+	}
+
+	private void updateArchive(List<S> offspringPopulation) {
 		if (archive != null) {
 			for (S ind : offspringPopulation) {
 				boolean updated = archive.add(ind);
@@ -198,8 +251,28 @@ public class SMSEMOA<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 				else nonUpdateEvaluationSum = 0;
 			}
 		}
+	}
 
-		return resultPopulation;
+	/**
+	 * @param enabled true to compute the contributions with BiObjectiveHypervolume on bi-objective
+	 *                problems (the default), false to always use the hypervolume implementation
+	 */
+	public void setBiObjectiveContributions(boolean enabled) {
+		this.biObjectiveHypervolume = enabled && getProblem().getNumberOfObjectives() == 2
+				? new BiObjectiveHypervolume<S>(offset)
+				: null;
+	}
+
+	/**
+	 * @param enabled true to keep the non-dominated fronts up to date with IncrementalRanking across
+	 *                the steps (the default), false to sort the joint population at every step
+	 */
+	public void setIncrementalRanking(boolean enabled) {
+		this.incrementalRanking = enabled ? new IncrementalRanking<S>() : null;
+	}
+
+	public void setArchive(Archive<S> archive) {
+		this.archive = archive;
 	}
 
 	public List<S> getArchive() {
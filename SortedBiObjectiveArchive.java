@@ -0,0 +1,81 @@
+package gecco24;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.errorchecking.JMetalException;
+
+/**
+ * SortedBiObjectiveArchive
+ * Drop-in replacement of NonDominatedSolutionListArchive for two objectives.
+ * The feasible front is kept in a TreeMap sorted by the first objective, so the second one
+ * is strictly decreasing: a point is dominated iff its floor entry is no worse in f2, and the
+ * points it dominates are the run of successors with f2 no better than its own.
+ * add() and query() are O(log n) plus O(log n) per removed point, instead of a scan of the
+ * whole archive, and remove() is O(log n).
+ * getSolutionList() is sorted by the first objective.
+ */
+@SuppressWarnings("serial")
+public class SortedBiObjectiveArchive<S extends Solution> extends AbstractFrontArchive<S> {
+
+	private final TreeMap<Double, S> front = new TreeMap<Double, S>();
+
+	@Override
+	protected Relation relation(S solution) {
+		double[] f = objectives(solution);
+		// the closest point on the left dominates or equals it, if any does
+		Map.Entry<Double, S> floor = front.floorEntry(f[0]);
+		if (floor != null && floor.getValue().objectives()[1] <= f[1])
+			return floor.getKey() == f[0] && floor.getValue().objectives()[1] == f[1] ? Relation.EQUAL
+					: Relation.DOMINATED;
+		// it dominates the closest point on the right, if it dominates any
+		Map.Entry<Double, S> ceiling = front.ceilingEntry(f[0]);
+		if (ceiling != null && ceiling.getValue().objectives()[1] >= f[1])
+			return Relation.DOMINATES;
+		return Relation.NONDOMINATED;
+	}
+
+	@Override
+	protected void insertFeasible(S solution) {
+		double[] f = objectives(solution);
+		// the points it dominates follow it in f1 order
+		Iterator<S> dominated = front.tailMap(f[0], true).values().iterator();
+		while (dominated.hasNext()) {
+			S member = dominated.next();
+			if (member.objectives()[1] < f[1])
+				break;
+			dominated.remove();
+			removed(member);
+		}
+		front.put(f[0], solution);
+	}
+
+	@Override
+	protected boolean removeFeasible(S solution) {
+		double key = objectives(solution)[0];
+		if (front.get(key) != solution)
+			return false;
+		front.remove(key);
+		return true;
+	}
+
+	private double[] objectives(S solution) {
+		double[] f = solution.objectives();
+		if (f.length != 2)
+			throw new JMetalException("SortedBiObjectiveArchive: two objectives expected, got " + f.length);
+		return new double[] { f[0] + 0.0, f[1] }; // -0.0 and 0.0 are the same key
+	}
+
+	@Override
+	protected int frontSize() {
+		return front.size();
+	}
+
+	@Override
+	protected void collect(List<S> list) {
+		list.addAll(front.values());
+	}
+}
@@ -0,0 +1,84 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.util.comparator.DominanceComparator;
+
+/**
+ * WalkerBenchmark
+ * Scaling of multi-walker PLS and SEMO with 1, 2, 4... walkers and finally one per core: the
+ * evaluations per second of one run of a fixed budget, the speed-up over a single walker and the
+ * efficiency, the speed-up divided by the number of walkers. The archive size shows the walkers
+ * still build a comparable front.
+ *
+ * java gecco24.WalkerBenchmark [problemInfoDirectory] [evaluations]
+ * Without a data directory, random instances of the tested sizes are generated.
+ */
+public class WalkerBenchmark {
+
+	public static void main(String[] args) {
+		String dir = args.length > 0 && !args[0].equals("-") ? args[0] : null;
+		int evaluations = args.length > 1 ? Integer.valueOf(args[1]) : 1000000;
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		List<Problem> problems = dir == null
+				? List.of(new Knapsack01(1000), new MONKLand(200, 10), new MOTSP(500), new MOQAP(200))
+				: List.of(new Knapsack01(1000).load(dir + "KP-1000.txt"),
+						new MONKLand(200, 10).load(dir + "NK-200-10.txt"),
+						new MOTSP(500).load(dir + "TSP-500.txt"),
+						new MOQAP(200).load(dir + "QAP-200.txt"));
+
+		System.out.println("problem\talgorithm\twalkers\tevals/s\tspeed-up\tefficiency\tarchive size");
+		for (Problem problem : problems) {
+			for (String algorithm : new String[] { "PLS", "SEMO" }) {
+				run(problem, algorithm, 1, evaluations / 10); // warm-up
+				double base = 0;
+				for (int walkers : walkerCounts(cores)) {
+					long t0 = System.nanoTime();
+					ZAlgorithm alg = run(problem, algorithm, walkers, evaluations);
+					double rate = alg.getT() * 1e9 / (System.nanoTime() - t0);
+					if (walkers == 1)
+						base = rate;
+					System.out.printf("%s\t%s\t%d\t%.0f\t%.2f\t%.2f\t%d%n", problem.getName(), algorithm, walkers, rate,
+							rate / base, rate / base / walkers, alg.getResult().size());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return 1, 2, 4... below cores, then cores
+	 */
+	private static List<Integer> walkerCounts(int cores) {
+		List<Integer> counts = new ArrayList<Integer>();
+		for (int walkers = 1; walkers < cores; walkers *= 2)
+			counts.add(walkers);
+		counts.add(cores);
+		return counts;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ZAlgorithm run(Problem problem, String algorithm, int walkers, int evaluations) {
+		NeighbourMoves moves = ExperimentRunner.getNeighbourMoves(problem, null);
+		ZAlgorithm alg;
+		if (algorithm.equals("PLS")) {
+			PLS pls = new PLS(problem, moves, new DominanceComparator());
+			pls.setPrompt(false);
+			pls.setMaxEvaluations(evaluations);
+			pls.setArchive(ExperimentRunner.createArchive(problem));
+			pls.setWalkers(walkers);
+			alg = pls;
+		} else {
+			SEMO semo = new SEMO(problem, moves, new DominanceComparator());
+			semo.setPrompt(false);
+			semo.setMaxEvaluations(evaluations);
+			semo.setArchive(ExperimentRunner.createArchive(problem));
+			semo.setWalkers(walkers);
+			alg = semo;
+		}
+		alg.run();
+		return alg;
+	}
+}
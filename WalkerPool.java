@@ -0,0 +1,82 @@
+package gecco24;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.uma.jmetal.util.errorchecking.JMetalException;
+
+/**
+ * WalkerPool
+ * Runs the walkers of a multi-walker local search, one thread each, sharing its evaluation budget:
+ * a walker claims every evaluation before making it, so the budget is spent exactly whatever the
+ * number of walkers. All walkers stop as soon as one of them returns or fails, or when the thread
+ * that runs them is stopped, as by the runtime limit of ExperimentRunner.
+ */
+public class WalkerPool {
+
+	private final AtomicInteger evaluations;
+	private final int maxEvaluations;
+	private volatile boolean stopped = false;
+
+	/**
+	 * @param evaluations evaluations already spent
+	 */
+	public WalkerPool(int evaluations, int maxEvaluations) {
+		this.evaluations = new AtomicInteger(evaluations);
+		this.maxEvaluations = maxEvaluations;
+	}
+
+	/**
+	 * @return true if one more evaluation may be made, false once the budget is spent or the walkers
+	 *         are stopped
+	 */
+	public boolean claim() {
+		int spent;
+		do {
+			spent = evaluations.get();
+			if (spent >= maxEvaluations || stopped)
+				return false;
+		} while (!evaluations.compareAndSet(spent, spent + 1));
+		return true;
+	}
+
+	public int getEvaluations() {
+		return evaluations.get();
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Runs walker on the given number of threads and waits for all of them
+	 */
+	public void run(int walkers, Runnable walker) {
+		ExecutorService executor = Executors.newFixedThreadPool(walkers);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int w = 0; w < walkers; w++)
+				futures.add(executor.submit(() -> {
+					try {
+						walker.run();
+					} finally {
+						stopped = true;
+					}
+				}));
+			for (Future<?> future : futures)
+				future.get();
+		} catch (ExecutionException e) {
+			throw new JMetalException("WalkerPool: a walker failed", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			stopped = true;
+			executor.shutdownNow();
+		}
+	}
+}
@@ -11,4 +11,11 @@ public interface ZAlgorithm<S> extends Runnable {
 	public String getName();
 	public Problem getProblem();
 	public List<S> getResult();
+
+	/**
+	 * @return cache of the evaluated neighbours, null if the algorithm has none
+	 */
+	public default GenotypeCache getGenotypeCache() {
+		return null;
+	}
 }